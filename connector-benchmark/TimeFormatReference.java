@@ -0,0 +1,194 @@
+import java.text.DateFormatSymbols;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalTime;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DecimalStyle;
+import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Java reference for conformance.js. Prints, as JSON, the time format
+ * metadata of each given locale and the times formatted by
+ * {@link DateTimeFormatter} that the connector is expected to produce and
+ * parse back, for minute, second and millisecond steps and for custom
+ * patterns.
+ * <p>
+ * The metadata is computed the same way as in TimeFormatMetadata of the
+ * component, while the expected strings come from {@link DateTimeFormatter}.
+ * The relative input vocabulary of each locale is computed the same way as in
+ * RelativeInputParser.
+ * <p>
+ * Usage: {@code java TimeFormatReference.java <count> <pattern,...> <locale>...}
+ */
+public class TimeFormatReference {
+
+    public static void main(String[] args) {
+        int count = Integer.parseInt(args[0]);
+        String[] patterns = args[1].split(",");
+        Random random = new Random(count);
+        List<LocalTime> times = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            times.add(LocalTime.ofNanoOfDay(
+                    random.nextInt(24 * 60 * 60 * 1000) * 1_000_000L));
+        }
+
+        StringBuilder json = new StringBuilder("{");
+        for (int l = 2; l < args.length; l++) {
+            Locale locale = Locale.forLanguageTag(args[l]);
+            String medium = DateTimeFormatterBuilder.getLocalizedDateTimePattern(
+                    null, FormatStyle.MEDIUM, IsoChronology.INSTANCE, locale);
+            List<String> parts = tokenize(medium);
+            String[] amPm = DateFormatSymbols.getInstance(locale)
+                    .getAmPmStrings();
+
+            json.append(l > 2 ? "," : "").append(quote(args[l])).append(":{");
+            json.append("\"metadata\":{\"version\":1,\"parts\":[");
+            for (int i = 0; i < parts.size(); i++) {
+                json.append(i > 0 ? "," : "").append(quote(parts.get(i)));
+            }
+            json.append("],\"hour12\":").append(parts.contains("h")
+                    || parts.contains("hh") || parts.contains("K")
+                    || parts.contains("KK"));
+            json.append(",\"am\":").append(quote(amPm[0]));
+            json.append(",\"pm\":").append(quote(amPm[1]));
+            json.append(",\"zeroDigit\":").append(quote(String.valueOf(
+                    DecimalFormatSymbols.getInstance(locale).getZeroDigit())));
+            json.append("},\"relativeInput\":{\"version\":1,\"words\":{");
+            int w = 0;
+            for (Map.Entry<String, String> word : relativeInputWords(locale)
+                    .entrySet()) {
+                json.append(w++ > 0 ? "," : "").append(quote(word.getKey()))
+                        .append(":").append(quote(word.getValue()));
+            }
+            json.append("},\"zeroDigit\":").append(quote(String.valueOf(
+                    DecimalFormatSymbols.getInstance(locale).getZeroDigit())));
+            json.append("},\"steps\":{");
+            // without seconds the literal before them is left out as well
+            String minutes = medium.replaceAll("[^a-zA-Z']*s+", "");
+            appendTimes(json, "60", minutes, locale, times);
+            json.append(",");
+            appendTimes(json, "1", medium, locale, times);
+            json.append(",");
+            appendTimes(json, "0.001", medium.replace("ss", "ss.SSS"), locale,
+                    times);
+            json.append("},\"patterns\":{");
+            for (int p = 0; p < patterns.length; p++) {
+                json.append(p > 0 ? "," : "");
+                appendTimes(json, patterns[p], patterns[p], locale, times);
+            }
+            json.append("}}");
+        }
+        System.out.println(json.append("}"));
+    }
+
+    private static void appendTimes(StringBuilder json, String key,
+            String pattern, Locale locale, List<LocalTime> times) {
+        DateTimeFormatter formatter = DateTimeFormatter
+                .ofPattern(pattern, locale)
+                .withDecimalStyle(DecimalStyle.of(locale));
+        json.append(quote(key)).append(":[");
+        for (int i = 0; i < times.size(); i++) {
+            LocalTime time = times.get(i);
+            json.append(i > 0 ? "," : "").append("[")
+                    .append(time.getHour()).append(",")
+                    .append(time.getMinute()).append(",")
+                    .append(time.getSecond()).append(",")
+                    .append(time.getNano() / 1_000_000).append(",")
+                    .append(quote(formatter.format(time))).append("]");
+        }
+        json.append("]");
+    }
+
+    private static Map<String, String> relativeInputWords(Locale locale) {
+        Map<String, String> words = new LinkedHashMap<>();
+        addWords(words, locale, "now", "now");
+        addWords(words, locale, "today", "today");
+        addWords(words, locale, "tomorrow", "tomorrow", "tmrw");
+        addWords(words, locale, "yesterday", "yesterday");
+        addWords(words, locale, "next", "next");
+        addWords(words, locale, "last", "last", "prev", "previous");
+        addWords(words, locale, "m", "m", "min", "mins", "minute", "minutes");
+        addWords(words, locale, "h", "h", "hr", "hrs", "hour", "hours");
+        addWords(words, locale, "d", "d", "day", "days");
+        addWords(words, locale, "w", "w", "wk", "week", "weeks");
+        // the words of the locale win over the English ones
+        for (Locale symbolsLocale : new Locale[] { Locale.ENGLISH, locale }) {
+            DateFormatSymbols symbols = DateFormatSymbols
+                    .getInstance(symbolsLocale);
+            for (int day = 1; day <= 7; day++) {
+                addWords(words, locale, "wd" + ((day + 5) % 7 + 1),
+                        symbols.getWeekdays()[day],
+                        symbols.getShortWeekdays()[day]);
+            }
+            addWords(words, locale, "am", symbols.getAmPmStrings()[0]);
+            addWords(words, locale, "pm", symbols.getAmPmStrings()[1]);
+        }
+        return words;
+    }
+
+    private static void addWords(Map<String, String> words, Locale locale,
+            String token, String... forms) {
+        for (String form : forms) {
+            String word = form.toLowerCase(locale).replaceAll("[.\\s]", "");
+            if (!word.isEmpty()) {
+                words.put(word, token);
+            }
+        }
+    }
+
+    private static List<String> tokenize(String pattern) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                int end = pattern.indexOf('\'', i + 1);
+                if (end < 0) {
+                    end = pattern.length();
+                }
+                literal.append(end == i + 1 ? "'" : pattern.substring(i + 1, end));
+                i = end + 1;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                if (literal.length() > 0) {
+                    tokens.add("'" + literal);
+                    literal.setLength(0);
+                }
+                int end = i + 1;
+                while (end < pattern.length() && pattern.charAt(end) == c) {
+                    end++;
+                }
+                tokens.add(c == 'B' ? "a" : pattern.substring(i, end));
+                i = end;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        if (literal.length() > 0) {
+            tokens.add("'" + literal);
+        }
+        return tokens;
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
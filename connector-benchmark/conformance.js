@@ -0,0 +1,122 @@
+/*
+ * Conformance check and benchmark of formatTime/parseTime of enhancedTimepickerConnector.js.
+ *
+ * Runs TimeFormatReference.java, which generates random times and formats them with
+ * java.time for each locale, step and pattern, checks that the connector formats the
+ * times the same way and parses the Java formatted strings back to the same times,
+ * and reports the formatted and parsed times per second.
+ *
+ * It also checks that the relative input parser of enhancedDateTimePickerConnector.js, given
+ * the vocabulary computed like RelativeInputParser.java does, parses the expressions of
+ * relative-input-cases.json like the Java unit tests expect.
+ *
+ * Usage: node conformance.js [count] [locale...]
+ */
+const { execFileSync } = require('child_process');
+const fs = require('fs');
+const path = require('path');
+const { load, createTimePicker, parseTime, createRelativeParser } = require('./stub.js');
+
+const RELATIVE_INPUT_CASES = path.join(__dirname,
+    '../enhanced-date-time-picker/src/test/resources/com/vaadin/componentfactory/relative-input-cases.json');
+
+const DEFAULT_LOCALES = ['en-US', 'en-GB', 'fi-FI', 'de-DE', 'fr-FR', 'es-ES', 'zh-CN', 'ko-KR', 'ja-JP',
+    'ar-EG', 'fa-IR', 'hi-IN', 'bn-BD', 'bg-BG', 'ru-RU'];
+// patterns that date-fns and java.time format the same way
+const PATTERNS = ['HH:mm', 'hh:mm a', 'H.mm.ss', 'HH:mm:ss.SSS'];
+
+const count = parseInt(process.argv[2] || '2000', 10);
+const locales = process.argv.length > 3 ? process.argv.slice(3) : DEFAULT_LOCALES;
+
+const reference = JSON.parse(execFileSync('java',
+    [path.join(__dirname, 'TimeFormatReference.java'), String(count), PATTERNS.join(',')].concat(locales),
+    { encoding: 'utf8', maxBuffer: 1024 * 1024 * 1024 }));
+
+let failures = 0;
+const fail = function (message) {
+    if (failures++ < 20) {
+        console.error(message);
+    }
+};
+
+// times truncated to the precision the step or pattern shows
+const expectedTime = function (time, precision) {
+    return {
+        hours: time[0],
+        minutes: time[1],
+        seconds: precision !== 'minutes' ? time[2] : 0,
+        milliseconds: precision === 'milliseconds' ? time[3] : 0
+    };
+};
+
+const sameTime = function (a, b) {
+    return !!a && !!b && a.hours === b.hours && a.minutes === b.minutes
+        && a.seconds === b.seconds && a.milliseconds === b.milliseconds;
+};
+
+const check = function (name, timepicker, times, precision) {
+    let start = process.hrtime.bigint();
+    const formatted = times.map(time => timepicker.i18n.formatTime(expectedTime(time, precision)));
+    const formatNanos = Number(process.hrtime.bigint() - start);
+
+    start = process.hrtime.bigint();
+    const parsed = times.map(time => parseTime(timepicker, time[4]));
+    const parseNanos = Number(process.hrtime.bigint() - start);
+
+    times.forEach((time, i) => {
+        const expected = expectedTime(time, precision);
+        if (formatted[i] !== time[4]) {
+            fail(`${name}: ${JSON.stringify(expected)} formatted as ${JSON.stringify(formatted[i])}, expected ${JSON.stringify(time[4])}`);
+        }
+        if (!sameTime(parsed[i], expected)) {
+            fail(`${name}: ${JSON.stringify(time[4])} parsed as ${JSON.stringify(parsed[i])}, expected ${JSON.stringify(expected)}`);
+        }
+    });
+    console.log(`${name.padEnd(30)} ${Math.round(times.length / formatNanos * 1e9).toLocaleString('en-US').padStart(11)} formatted/s, `
+        + `${Math.round(times.length / parseNanos * 1e9).toLocaleString('en-US').padStart(11)} parsed/s`);
+};
+
+// the cases give the expected ISO date time, or null if the text is not a relative expression
+const checkRelativeInput = function (locale, vocabulary, cases, now) {
+    const parser = createRelativeParser(locale, vocabulary);
+    cases.forEach(([text, expected]) => {
+        const parsed = parser(text, now);
+        if (parsed !== expected) {
+            fail(`${locale}: relative input ${JSON.stringify(text)} parsed as ${JSON.stringify(parsed)}, expected ${JSON.stringify(expected)}`);
+        }
+    });
+    console.log(`${(locale + ' relative input').padEnd(30)} ${String(cases.length).padStart(11)} cases`);
+};
+
+const STEP_PRECISIONS = { '60': 'minutes', '1': 'seconds', '0.001': 'milliseconds' };
+
+load(locales).then(() => {
+    locales.forEach(locale => {
+        const data = reference[locale];
+        Object.keys(data.steps).forEach(step => {
+            const timepicker = createTimePicker(locale, data.metadata, parseFloat(step));
+            check(`${locale} step ${step}`, timepicker, data.steps[step], STEP_PRECISIONS[step]);
+        });
+        // the connector passes only the language to date-fns, which formats am/pm like en-US
+        // even when java.time formats them in lower case like for en-GB
+        if (locale === 'en-US') {
+            Object.keys(data.patterns).forEach(pattern => {
+                const timepicker = createTimePicker(locale, data.metadata, 0.001, pattern);
+                const precision = pattern.indexOf('S') >= 0 ? 'milliseconds' : pattern.indexOf('s') >= 0 ? 'seconds' : 'minutes';
+                check(`${locale} ${pattern}`, timepicker, data.patterns[pattern], precision);
+            });
+        }
+    });
+
+    const relativeInput = JSON.parse(fs.readFileSync(RELATIVE_INPUT_CASES, 'utf8'));
+    // without a zone designator, the time is local like the time the connector passes
+    const now = new Date(relativeInput.now);
+    locales.filter(locale => relativeInput.cases[locale]).forEach(locale => {
+        checkRelativeInput(locale, reference[locale].relativeInput, relativeInput.cases[locale], now);
+    });
+
+    if (failures) {
+        console.error(`${failures} mismatches with the Java reference`);
+        process.exit(1);
+    }
+});
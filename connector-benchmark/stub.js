@@ -0,0 +1,65 @@
+/*
+ * Loads the time picker connector into Node.js the way the application bundle does, through
+ * enhancedTimepickerConnectorModule.js and the date-fns version of package.json, which is the one
+ * of the @NpmPackage annotation of EnhancedTimePicker, and creates time pickers stubbing the parts
+ * of the web component the connector uses. Run `npm install` first.
+ */
+const fs = require('fs');
+const path = require('path');
+const { pathToFileURL } = require('url');
+
+const FRONTEND = path.join(__dirname, '../enhanced-date-time-picker/src/main/resources/META-INF/resources/frontend');
+
+global.window = { Vaadin: { Flow: {} } };
+global.requestAnimationFrame = callback => callback();
+
+// The module is evaluated from a data URL, where only absolute specifiers resolve, so the
+// date-fns imports are resolved from the node_modules of this directory and the connector
+// import from the frontend directory, like the frontend build does.
+const resolveSpecifier = function (specifier) {
+    const file = specifier.startsWith('.') ? path.join(FRONTEND, specifier) : require.resolve(specifier);
+    return pathToFileURL(file).href;
+};
+
+const moduleSource = fs.readFileSync(path.join(FRONTEND, 'enhancedTimepickerConnectorModule.js'), 'utf8')
+    .replace(/(from |import |import\()'([^']+)'/g, (match, prefix, specifier) => `${prefix}'${resolveSpecifier(specifier)}'`);
+
+// creates a time picker with the given locale and its metadata, see TimeFormatMetadata.java,
+// and optionally a formatting pattern
+const createTimePicker = function (locale, metadata, step, pattern) {
+    const timepicker = { step: step, $: { comboBox: { value: '' } }, addEventListener: function () {} };
+    window.Vaadin.Flow.enhancedTimepickerConnector.initLazy(timepicker);
+    timepicker.$connector.setLocale(locale, metadata);
+    if (pattern) {
+        timepicker.$connector.setPattern(pattern);
+    }
+    return timepicker;
+};
+
+// parses the text like the combo box does, which passes its own value to parseTime
+const parseTime = function (timepicker, text) {
+    timepicker.$.comboBox.value = text;
+    return timepicker.i18n.parseTime(text);
+};
+
+// creates the relative input parser of the date time picker connector from the given vocabulary,
+// see RelativeInputParser.toJson(), once the time picker connector has been loaded
+const createRelativeParser = function (locale, vocabulary) {
+    require(path.join(FRONTEND, 'enhancedDateTimePickerConnector.js'));
+    const createElement = () => ({ $: {}, addEventListener: function () {} });
+    const dateTimePicker = createElement();
+    window.Vaadin.Flow.enhancedDateTimePickerConnector.initLazy(dateTimePicker, createElement(), createElement());
+    dateTimePicker.$connector.setRelativeInput(locale, vocabulary);
+    return dateTimePicker.$connector.relativeParser;
+};
+
+// Loads the connector module and the date-fns locales of the given language tags up front, so that
+// the locales are not loaded while measuring. Resolves to the connector.
+const load = function (locales) {
+    return import('data:text/javascript,' + encodeURIComponent(moduleSource)).then(() => {
+        const dateFns = window.Vaadin.Flow.enhancedTimepickerConnector.dateFns;
+        return Promise.all(locales.map(locale => dateFns.loadLocale(locale.split('-')[0])));
+    }).then(() => window.Vaadin.Flow.enhancedTimepickerConnector);
+};
+
+module.exports = { load, createTimePicker, parseTime, createRelativeParser };
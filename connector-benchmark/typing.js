@@ -0,0 +1,88 @@
+/*
+ * Benchmark of the as-you-type parsing of enhancedTimepickerConnector.js.
+ *
+ * Types the formatted times of each locale character by character, like the
+ * combo box of the time picker parses them, then deletes them again, and
+ * reports the parsed prefixes per second and the completion lookups per second.
+ *
+ * Usage: node typing.js [rounds]
+ */
+const { load, createTimePicker, parseTime } = require('./stub.js');
+
+// time format metadata as sent by the server, see TimeFormatMetadata.java
+const LOCALES = {
+    'en-US': { version: 1, parts: ['h', "':", 'mm', "':", 'ss', "' ", 'a'], hour12: true, am: 'AM', pm: 'PM', zeroDigit: '0' },
+    'fi-FI': { version: 1, parts: ['H', "'.", 'mm', "'.", 'ss'], hour12: false, am: 'ap.', pm: 'ip.', zeroDigit: '0' },
+    'zh-CN': { version: 1, parts: ['a', 'h', "':", 'mm', "':", 'ss'], hour12: true, am: '上午', pm: '下午', zeroDigit: '0' },
+    'ko-KR': { version: 1, parts: ['a', "' ", 'h', "':", 'mm', "':", 'ss'], hour12: true, am: '오전', pm: '오후', zeroDigit: '0' },
+    'ar-EG': { version: 1, parts: ['h', "':", 'mm', "':", 'ss', "' ", 'a'], hour12: true, am: 'ص', pm: 'م', zeroDigit: '٠' },
+    'fa-IR': { version: 1, parts: ['H', "':", 'mm', "':", 'ss'], hour12: false, am: 'ق.ظ.', pm: 'ب.ظ.', zeroDigit: '۰' },
+    'bg-BG': { version: 1, parts: ['H', "':", 'mm', "':", 'ss', "' ч."], hour12: false, am: 'пр.об.', pm: 'сл.об.', zeroDigit: '0' }
+};
+
+const STEPS = [900, 30, 0.5];
+
+// the prefixes seen while typing the text and deleting it again
+const typingSequence = function (text) {
+    const sequence = [];
+    for (let i = 1; i <= text.length; i++) {
+        sequence.push(text.substring(0, i));
+    }
+    for (let i = text.length - 1; i > 0; i--) {
+        sequence.push(text.substring(0, i));
+    }
+    return sequence;
+};
+
+const rounds = parseInt(process.argv[2] || '20', 10);
+let failures = 0;
+
+load(Object.keys(LOCALES)).then(() => {
+    Object.keys(LOCALES).forEach(locale => STEPS.forEach(step => {
+        const timepicker = createTimePicker(locale, LOCALES[locale], step);
+        const sequences = [];
+        for (let minutes = 0; minutes < 24 * 60; minutes += 7) {
+            const time = { hours: Math.floor(minutes / 60), minutes: minutes % 60, seconds: minutes % 60, milliseconds: minutes % 1000 };
+            const text = timepicker.i18n.formatTime(time);
+            const parsed = parseTime(timepicker, text);
+            const expectedSeconds = step < 60 ? time.seconds : 0;
+            const expectedMilliseconds = step < 1 ? time.milliseconds : 0;
+            if (!parsed || parsed.hours !== time.hours || parsed.minutes !== time.minutes
+                || parsed.seconds !== expectedSeconds || parsed.milliseconds !== expectedMilliseconds) {
+                failures++;
+                console.error(`${locale} step ${step}: ${text} parsed as ${JSON.stringify(parsed)}`);
+            }
+            sequences.push(typingSequence(text));
+        }
+
+        let parsed = 0;
+        let start = process.hrtime.bigint();
+        for (let round = 0; round < rounds; round++) {
+            sequences.forEach(sequence => sequence.forEach(prefix => {
+                parseTime(timepicker, prefix);
+                parsed++;
+            }));
+        }
+        const parseNanos = Number(process.hrtime.bigint() - start);
+
+        let completed = 0;
+        start = process.hrtime.bigint();
+        for (let round = 0; round < rounds; round++) {
+            sequences.forEach(sequence => {
+                timepicker.$connector.getCompletions(sequence[0]);
+                timepicker.$connector.getCompletions(sequence[2]);
+                completed += 2;
+            });
+        }
+        const completionNanos = Number(process.hrtime.bigint() - start);
+
+        console.log(`${locale.padEnd(6)} step ${String(step).padStart(4)}: `
+            + `${Math.round(parsed / parseNanos * 1e9).toLocaleString('en-US').padStart(11)} prefixes/s, `
+            + `${Math.round(completed / completionNanos * 1e9).toLocaleString('en-US').padStart(11)} completions/s`);
+    }));
+
+    if (failures) {
+        console.error(`${failures} formatted times were not parsed back`);
+        process.exit(1);
+    }
+});
@@ -0,0 +1,99 @@
+// Overlay of EnhancedDateTimePickerStressView showing the cost of the last round-trip: the server
+// time reported by the view, the UIDL payload size and JavaScript call count of the response, and
+// on demand the parse and format timings of the pickers in the browser.
+const stats = {};
+let overlay = null;
+
+const render = function () {
+    if (!overlay) {
+        return;
+    }
+    const lines = [];
+    if (stats.serverMillis !== undefined) {
+        lines.push(`pickers: ${stats.pickers}`);
+        lines.push(`server: ${stats.serverMillis.toFixed(1)} ms`);
+    }
+    if (stats.payloadBytes !== undefined) {
+        lines.push(`UIDL: ${(stats.payloadBytes / 1024).toFixed(1)} kB, ${stats.jsCalls} JS calls`);
+        lines.push(`client update: ${stats.clientMillis.toFixed(1)} ms`);
+    }
+    if (stats.timings) {
+        stats.timings.forEach(timing => lines.push(timing));
+    }
+    overlay.textContent = lines.join('\n');
+};
+
+// the UIDL responses are read from the XMLHttpRequests of Flow, prefixed with for(;;);
+const open = XMLHttpRequest.prototype.open;
+XMLHttpRequest.prototype.open = function (method, url) {
+    if (String(url).indexOf('v-r=uidl') >= 0) {
+        this.addEventListener('load', () => {
+            const start = performance.now();
+            const text = this.responseText || '';
+            let jsCalls = 0;
+            try {
+                const json = JSON.parse(text.replace(/^for\(;;\);/, ''));
+                const response = Array.isArray(json) ? json[0] : json;
+                jsCalls = response.execute ? response.execute.length : 0;
+            } catch (e) {
+                // not a UIDL response
+                return;
+            }
+            stats.payloadBytes = new Blob([text]).size;
+            stats.jsCalls = jsCalls;
+            // until the changes have been applied and laid out
+            requestAnimationFrame(() => setTimeout(() => {
+                stats.clientMillis = performance.now() - start;
+                render();
+            }));
+        });
+    }
+    return open.apply(this, arguments);
+};
+
+const average = function (elements, iterations, run) {
+    if (elements.length === 0) {
+        return 0;
+    }
+    const start = performance.now();
+    for (let i = 0; i < iterations; i++) {
+        run(elements[i % elements.length], i);
+    }
+    return (performance.now() - start) * 1000 / iterations;
+};
+
+window.stressOverlay = {
+    init: function (element) {
+        overlay = element;
+        render();
+    },
+
+    setServerTime: function (millis, pickers) {
+        stats.serverMillis = millis;
+        stats.pickers = pickers;
+        render();
+    },
+
+    // calls the i18n functions set up by the connectors the given number of times per kind
+    measureClient: function (iterations) {
+        const timePickers = Array.from(document.querySelectorAll(
+            'vaadin-date-time-picker-time-picker, vaadin-time-picker')).filter(p => p.i18n && p.i18n.formatTime);
+        const datePickers = Array.from(document.querySelectorAll(
+            'vaadin-date-time-picker-date-picker, vaadin-date-picker')).filter(p => p.i18n && p.i18n.formatDate);
+        const timeOf = i => ({ hours: i % 24, minutes: (i * 7) % 60, seconds: 0 });
+        const dateOf = i => ({ year: 2000 + i % 30, month: i % 12, day: 1 + i % 28 });
+        const formattedTimes = timePickers.map((p, i) => p.i18n.formatTime(timeOf(i)));
+        const formattedDates = datePickers.map((p, i) => p.i18n.formatDate(dateOf(i)));
+
+        stats.timings = [
+            `formatTime: ${average(timePickers, iterations, (p, i) => p.i18n.formatTime(timeOf(i))).toFixed(1)} µs`,
+            `parseTime: ${average(timePickers, iterations, (p, i) =>
+                p.i18n.parseTime(formattedTimes[i % timePickers.length])).toFixed(1)} µs`,
+            `formatDate: ${average(datePickers, iterations, (p, i) => p.i18n.formatDate(dateOf(i))).toFixed(1)} µs`,
+            `parseDate: ${average(datePickers, iterations, (p, i) =>
+                p.i18n.parseDate(formattedDates[i % datePickers.length])).toFixed(1)} µs`,
+            `(${timePickers.length} time and ${datePickers.length} date pickers, ${iterations} calls each)`
+        ];
+        render();
+    }
+};
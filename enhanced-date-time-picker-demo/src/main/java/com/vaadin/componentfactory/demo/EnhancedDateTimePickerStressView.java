@@ -0,0 +1,201 @@
+package com.vaadin.componentfactory.demo;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.vaadin.componentfactory.EnhancedDateTimePicker;
+import com.vaadin.componentfactory.LightweightEnhancedDateTimePicker;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.checkbox.Checkbox;
+import com.vaadin.flow.component.dependency.JsModule;
+import com.vaadin.flow.component.formlayout.FormLayout;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.component.tabs.Tab;
+import com.vaadin.flow.component.tabs.Tabs;
+import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.router.Route;
+
+/**
+ * Stress test view rendering a configurable number of date time pickers in a
+ * form, a grid or tabs, with mixed locales, patterns and parsers. The picker
+ * configurations only depend on their index, so that the same settings give
+ * the same workload for profiling and for comparing releases.
+ * <p>
+ * The overlay in the corner shows the server time of the last render, the
+ * UIDL payload size and JavaScript call count of the last response and, on
+ * demand, the parse and format timings of the pickers in the browser.
+ */
+@Route("stress")
+@JsModule("./stress-overlay.js")
+public class EnhancedDateTimePickerStressView extends VerticalLayout {
+
+    private static final List<Locale> LOCALES = Arrays.asList(Locale.US, Locale.UK, Locale.GERMANY, Locale.FRANCE,
+            new Locale("fi", "FI"), Locale.JAPAN, Locale.KOREA, new Locale("ar", "EG"));
+    private static final List<String> DATE_PATTERNS = Arrays.asList("dd-MM-yyyy", "dd.MM.yy", "yyyy/MM/dd");
+    private static final List<String> TIME_PATTERNS = Arrays.asList("HH:mm", "hh:mm aa", "HH.mm.ss");
+    private static final String[] DATE_PARSERS = { "dd-MM-yyyy", "dd.MM.yy", "yyyy/MM/dd" };
+    private static final String[] TIME_PARSERS = { "HH:mm", "HHmm", "hh:mm aa" };
+    private static final LocalDateTime BASE_VALUE = LocalDateTime.of(2021, 6, 30, 14, 30);
+
+    private enum Arrangement {
+        FORM, GRID, TABS
+    }
+
+    private enum Variant {
+        ENHANCED, LIGHTWEIGHT
+    }
+
+    private final IntegerField count = new IntegerField("Pickers");
+    private final Select<Arrangement> arrangement = new Select<>();
+    private final Select<Variant> variant = new Select<>();
+    private final Checkbox mixedLocales = new Checkbox("Mixed locales", true);
+    private final Checkbox mixedPatterns = new Checkbox("Mixed patterns", true);
+    private final Checkbox mixedParsers = new Checkbox("Mixed parsers", true);
+    private final Div workload = new Div();
+    private final Div overlay = new Div();
+
+    public EnhancedDateTimePickerStressView() {
+        count.setValue(100);
+        count.setMin(1);
+        count.setMax(5000);
+        count.setHasControls(true);
+        arrangement.setLabel("Arrangement");
+        arrangement.setItems(Arrangement.values());
+        arrangement.setValue(Arrangement.FORM);
+        variant.setLabel("Variant");
+        variant.setItems(Variant.values());
+        variant.setValue(Variant.ENHANCED);
+
+        Button renderButton = new Button("Render", e -> renderWorkload());
+        renderButton.setId("stress-render");
+        Button clearButton = new Button("Clear", e -> workload.removeAll());
+        Button measureButton = new Button("Measure client",
+                e -> getElement().executeJs("window.stressOverlay.measureClient($0)", 10000));
+        measureButton.setId("stress-measure");
+
+        HorizontalLayout settings = new HorizontalLayout(count, arrangement, variant, mixedLocales, mixedPatterns,
+                mixedParsers, renderButton, clearButton, measureButton);
+        settings.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.BASELINE);
+        settings.setWrap(true);
+
+        overlay.setId("stress-overlay");
+        overlay.getStyle().set("position", "fixed").set("right", "1em").set("bottom", "1em").set("z-index", "10")
+                .set("padding", "0.5em 1em").set("white-space", "pre").set("font-family", "monospace")
+                .set("background", "rgba(0, 0, 0, 0.75)").set("color", "white").set("border-radius", "4px");
+        overlay.getElement().executeJs("window.stressOverlay.init(this)");
+
+        workload.setWidthFull();
+        add(settings, workload, overlay);
+    }
+
+    private void renderWorkload() {
+        long start = System.nanoTime();
+        int pickers = count.getValue() == null ? 0 : count.getValue();
+        workload.removeAll();
+        switch (arrangement.getValue()) {
+        case GRID:
+            workload.add(createGrid(pickers));
+            break;
+        case TABS:
+            workload.add(createTabs(pickers));
+            break;
+        default:
+            workload.add(createForm(pickers));
+        }
+        // runs after the callbacks the pickers registered while being attached
+        UI ui = UI.getCurrent();
+        ui.beforeClientResponse(ui, context -> overlay.getElement().executeJs(
+                "window.stressOverlay.setServerTime($0, $1)", (System.nanoTime() - start) / 1e6, pickers));
+    }
+
+    private Component createForm(int pickers) {
+        FormLayout form = new FormLayout();
+        IntStream.range(0, pickers).forEach(i -> form.add(createPicker(i)));
+        return form;
+    }
+
+    private Component createGrid(int pickers) {
+        Grid<Integer> grid = new Grid<>();
+        grid.addColumn(i -> "#" + i).setHeader("Row").setAutoWidth(true).setFlexGrow(0);
+        grid.addColumn(new ComponentRenderer<>(this::createPicker)).setHeader("Picker");
+        grid.setItems(IntStream.range(0, pickers).boxed().collect(Collectors.toList()));
+        grid.setHeight("70vh");
+        return grid;
+    }
+
+    private Component createTabs(int pickers) {
+        int tabCount = Math.min(10, pickers);
+        Tabs tabs = new Tabs();
+        Div pages = new Div();
+        List<Component> tabPages = new ArrayList<>();
+        for (int t = 0; t < tabCount; t++) {
+            FormLayout page = new FormLayout();
+            // all pages are created, only the selected one is shown
+            for (int i = t; i < pickers; i += tabCount) {
+                page.add(createPicker(i));
+            }
+            page.setVisible(t == 0);
+            tabs.add(new Tab("Page " + (t + 1)));
+            tabPages.add(page);
+            pages.add(page);
+        }
+        tabs.addSelectedChangeListener(e -> {
+            for (int t = 0; t < tabPages.size(); t++) {
+                tabPages.get(t).setVisible(t == tabs.getSelectedIndex());
+            }
+        });
+        return new Div(tabs, pages);
+    }
+
+    private Component createPicker(int index) {
+        Locale locale = mixedLocales.getValue() ? LOCALES.get(index % LOCALES.size()) : Locale.US;
+        String datePattern = mixedPatterns.getValue() && index % 2 == 0
+                ? DATE_PATTERNS.get(index / 2 % DATE_PATTERNS.size())
+                : null;
+        String timePattern = mixedPatterns.getValue() && index % 3 == 0
+                ? TIME_PATTERNS.get(index / 3 % TIME_PATTERNS.size())
+                : null;
+        LocalDateTime value = BASE_VALUE.plusDays(index).plusMinutes(index * 15L);
+        String label = "Picker " + index;
+
+        if (variant.getValue() == Variant.LIGHTWEIGHT) {
+            LightweightEnhancedDateTimePicker picker = new LightweightEnhancedDateTimePicker(value);
+            picker.setLabel(label);
+            picker.setLocale(locale);
+            picker.setDatePattern(datePattern);
+            picker.setTimePattern(timePattern);
+            return picker;
+        }
+
+        EnhancedDateTimePicker picker = new EnhancedDateTimePicker(value, locale);
+        picker.setLabel(label);
+        if (datePattern != null) {
+            picker.setDatePattern(datePattern);
+        }
+        if (timePattern != null) {
+            picker.setTimePattern(timePattern);
+        }
+        if (mixedParsers.getValue() && index % 4 == 0) {
+            picker.setDateParsers(DATE_PARSERS);
+            picker.setTimeParsers(TIME_PARSERS);
+        }
+        if (index % 5 == 0) {
+            picker.setStep(Duration.ofMinutes(15));
+        }
+        return picker;
+    }
+}
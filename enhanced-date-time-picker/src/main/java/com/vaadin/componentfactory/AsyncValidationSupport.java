@@ -0,0 +1,221 @@
+package com.vaadin.componentfactory;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasValidation;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.data.binder.ValidationResult;
+import com.vaadin.flow.data.binder.Validator;
+import com.vaadin.flow.data.binder.ValueContext;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.shared.Registration;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the asynchronous validators of a picker outside of the session lock.
+ * <p>
+ * Each validation gets a generation number. Starting a new validation cancels
+ * the pending one, and a result is only applied, through
+ * {@link UI#access(com.vaadin.flow.server.Command)}, if no newer validation
+ * has been started in the meantime. An error result marks the picker invalid
+ * and shows its message instead of the configured error message, which is
+ * restored by the next validation.
+ * <p>
+ * A custom executor is not serialized with the session. After
+ * deserialization the default executor is used until another one is set.
+ */
+class AsyncValidationSupport<T> implements Serializable {
+
+    private static ExecutorService defaultExecutor;
+
+    private final Component component;
+    private final HasValidation field;
+    private final SerializableSupplier<String> errorMessage;
+    private final List<Validator<T>> validators = new ArrayList<>();
+    private final AtomicLong generation = new AtomicLong();
+    private transient Executor executor;
+    private transient Future<?> pending;
+    private boolean failed;
+
+    <C extends Component & HasValidation> AsyncValidationSupport(C component,
+            SerializableSupplier<String> errorMessage) {
+        this.component = component;
+        this.field = component;
+        this.errorMessage = errorMessage;
+    }
+
+    Registration addValidator(Validator<T> validator) {
+        Objects.requireNonNull(validator, "Validator cannot be null");
+        validators.add(validator);
+        return () -> validators.remove(validator);
+    }
+
+    void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    Executor getExecutor() {
+        return executor != null ? executor : getDefaultExecutor();
+    }
+
+    /**
+     * Checks whether the last validation of the current value has failed.
+     */
+    boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Cancels the pending validation, if any, and makes sure that its result
+     * is not applied.
+     */
+    void cancel() {
+        generation.incrementAndGet();
+        failed = false;
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    /**
+     * Continues the validation of the given value after the synchronous
+     * checks. The message of a previous asynchronous error is dropped, and
+     * the asynchronous validators are started for a valid value, superseding
+     * any pending validation. Nothing is started if there are no validators
+     * or the component is not attached.
+     *
+     * @param value
+     *            the value to validate
+     * @param invalid
+     *            whether the synchronous checks have failed
+     */
+    void validate(T value, boolean invalid) {
+        String message = errorMessage.get();
+        component.getElement().setProperty("errorMessage",
+                message == null ? "" : message);
+        cancel();
+        Optional<UI> ui = component.getUI();
+        if (invalid || validators.isEmpty() || !ui.isPresent()) {
+            return;
+        }
+        final long current = generation.get();
+        final List<Validator<T>> snapshot = new ArrayList<>(validators);
+        final ValueContext context = new ValueContext(component);
+
+        FutureTask<ValidationResult> task = new FutureTask<ValidationResult>(
+                () -> {
+                    for (Validator<T> validator : snapshot) {
+                        ValidationResult result = validator.apply(value,
+                                context);
+                        if (result.isError()) {
+                            return result;
+                        }
+                    }
+                    return ValidationResult.ok();
+                }) {
+            @Override
+            protected void done() {
+                if (isCancelled() || generation.get() != current) {
+                    return;
+                }
+                try {
+                    ValidationResult result = get();
+                    ui.get().access(() -> {
+                        if (generation.get() == current) {
+                            apply(result);
+                        }
+                    });
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    LoggerFactory.getLogger(AsyncValidationSupport.class)
+                            .warn("Asynchronous validation failed",
+                                    e.getCause());
+                } catch (UIDetachedException e) {
+                    // Nothing to show the result in anymore
+                }
+            }
+        };
+        pending = task;
+        getExecutor().execute(task);
+    }
+
+    private void apply(ValidationResult result) {
+        failed = result.isError();
+        if (failed) {
+            component.getElement().setProperty("errorMessage",
+                    result.getErrorMessage());
+            field.setInvalid(true);
+        }
+    }
+
+    private static synchronized Executor getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            defaultExecutor = createDefaultExecutor();
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Shuts down the default executor, if it has been created, when the
+     * Vaadin services of the application are destroyed. A later validation
+     * creates a new one.
+     */
+    static synchronized void shutdownDefaultExecutor() {
+        if (defaultExecutor != null) {
+            defaultExecutor.shutdownNow();
+            defaultExecutor = null;
+        }
+    }
+
+    private static ExecutorService createDefaultExecutor() {
+        try {
+            // Virtual threads are available from Java 21 on, while the
+            // component is built for Java 11
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable,
+                        "enhanced-date-time-picker-validation");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable table of the minimum and maximum time that can be selected,
+ * depending on the selected date. The bounds of a specific date take
+ * precedence over the bounds of its day of week, which take precedence over
+ * the default bounds. Both bounds are inclusive, and a {@code null} bound is
+ * not constrained.
+ * <p>
+ * The table is sent to the client once, and the time picker applies the
+ * bounds of a newly selected date without a server round-trip.
+ *
+ * @see EnhancedDateTimePicker#setDailyTimeBounds(DailyTimeBounds)
+ */
+public final class DailyTimeBounds implements Serializable {
+
+    private final LocalTime[] defaultBounds;
+    private final Map<DayOfWeek, LocalTime[]> dayOfWeekBounds;
+    private final Map<LocalDate, LocalTime[]> dateBounds;
+
+    private DailyTimeBounds(Builder builder) {
+        defaultBounds = builder.defaultBounds;
+        dayOfWeekBounds = new EnumMap<>(builder.dayOfWeekBounds);
+        dateBounds = new HashMap<>(builder.dateBounds);
+    }
+
+    /**
+     * Creates a new builder for the bounds table.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the minimum time that can be selected on the given date.
+     *
+     * @param date
+     *            the date, not {@code null}
+     * @return the minimum time, or {@code null} if not constrained
+     */
+    public LocalTime getMin(LocalDate date) {
+        return getBounds(date)[0];
+    }
+
+    /**
+     * Gets the maximum time that can be selected on the given date.
+     *
+     * @param date
+     *            the date, not {@code null}
+     * @return the maximum time, or {@code null} if not constrained
+     */
+    public LocalTime getMax(LocalDate date) {
+        return getBounds(date)[1];
+    }
+
+    /**
+     * Checks whether the time of the value is within the bounds of its date.
+     *
+     * @param value
+     *            the value to check, not {@code null}
+     * @return {@code true} if the value is within the bounds
+     */
+    public boolean isWithinBounds(LocalDateTime value) {
+        LocalTime[] bounds = getBounds(value.toLocalDate());
+        LocalTime time = value.toLocalTime();
+        return (bounds[0] == null || !time.isBefore(bounds[0]))
+                && (bounds[1] == null || !time.isAfter(bounds[1]));
+    }
+
+    private LocalTime[] getBounds(LocalDate date) {
+        Objects.requireNonNull(date, "Date cannot be null");
+        LocalTime[] bounds = dateBounds.get(date);
+        if (bounds == null) {
+            bounds = dayOfWeekBounds.get(date.getDayOfWeek());
+        }
+        return bounds != null ? bounds : defaultBounds;
+    }
+
+    /**
+     * Encodes the table for the client. Days of week are keyed by their ISO
+     * number, Monday being 1, and times are ISO strings, empty when not
+     * constrained.
+     */
+    JsonObject toJson() {
+        JsonObject json = Json.createObject();
+        json.put("default", toJson(defaultBounds));
+        JsonObject daysOfWeek = Json.createObject();
+        dayOfWeekBounds.forEach((dayOfWeek, bounds) -> daysOfWeek
+                .put(String.valueOf(dayOfWeek.getValue()), toJson(bounds)));
+        json.put("daysOfWeek", daysOfWeek);
+        JsonObject dates = Json.createObject();
+        dateBounds.forEach(
+                (date, bounds) -> dates.put(date.toString(), toJson(bounds)));
+        json.put("dates", dates);
+        return json;
+    }
+
+    private static JsonArray toJson(LocalTime[] bounds) {
+        JsonArray array = Json.createArray();
+        array.set(0, bounds[0] == null ? "" : bounds[0].toString());
+        array.set(1, bounds[1] == null ? "" : bounds[1].toString());
+        return array;
+    }
+
+    /**
+     * Collects the bounds for a {@link DailyTimeBounds} table.
+     */
+    public static final class Builder {
+
+        private LocalTime[] defaultBounds = new LocalTime[2];
+        private final Map<DayOfWeek, LocalTime[]> dayOfWeekBounds = new EnumMap<>(
+                DayOfWeek.class);
+        private final Map<LocalDate, LocalTime[]> dateBounds = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the bounds of dates without more specific bounds.
+         *
+         * @param min
+         *            the minimum time, or {@code null}
+         * @param max
+         *            the maximum time, or {@code null}
+         * @return this builder
+         */
+        public Builder setDefault(LocalTime min, LocalTime max) {
+            defaultBounds = new LocalTime[] { min, max };
+            return this;
+        }
+
+        /**
+         * Sets the bounds of dates falling on the given day of week.
+         *
+         * @param dayOfWeek
+         *            the day of week, not {@code null}
+         * @param min
+         *            the minimum time, or {@code null}
+         * @param max
+         *            the maximum time, or {@code null}
+         * @return this builder
+         */
+        public Builder setDayOfWeek(DayOfWeek dayOfWeek, LocalTime min,
+                LocalTime max) {
+            Objects.requireNonNull(dayOfWeek, "Day of week cannot be null");
+            dayOfWeekBounds.put(dayOfWeek, new LocalTime[] { min, max });
+            return this;
+        }
+
+        /**
+         * Sets the bounds of a specific date.
+         *
+         * @param date
+         *            the date, not {@code null}
+         * @param min
+         *            the minimum time, or {@code null}
+         * @param max
+         *            the maximum time, or {@code null}
+         * @return this builder
+         */
+        public Builder setDate(LocalDate date, LocalTime min, LocalTime max) {
+            Objects.requireNonNull(date, "Date cannot be null");
+            dateBounds.put(date, new LocalTime[] { min, max });
+            return this;
+        }
+
+        /**
+         * Builds the immutable bounds table.
+         *
+         * @return the bounds table
+         */
+        public DailyTimeBounds build() {
+            return new DailyTimeBounds(this);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.vaadin.componentfactory;
+
+import com.vaadin.componentfactory.EnhancedDatePicker.DatePickerI18n;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.JsonSerializer;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Interns the {@link DatePickerI18n} objects of the date time pickers of an
+ * UI. Objects with the same content are serialized and kept once, under an
+ * integer key, and sent to the client of the UI once. The pickers then only
+ * send the key, see {@link #takeI18n(int)}.
+ * <p>
+ * One registry is stored per UI, see {@link #get(UI)}. The client keeps the
+ * objects under the {@link #getId() id} of the registry, as one page may show
+ * several UIs, eg. embedded applications. When the client lacks the object of
+ * a key, eg. after a reload of a view that preserves its UI, the picker sends
+ * it again with {@link #getI18n(int)}.
+ * <p>
+ * At most {@link #MAX_SIZE} contents are kept, the least recently interned
+ * one is released when another one is added. Keys are never reused, a
+ * released content that is interned again gets a new key and is sent again.
+ */
+final class DatePickerI18nRegistry implements Serializable {
+
+    /**
+     * The maximum number of contents kept per UI. An application usually has
+     * a few, eg. one per supported locale.
+     */
+    static final int MAX_SIZE = 64;
+
+    private final String id = UUID.randomUUID().toString();
+    // in access order, the eldest entry is the least recently interned one
+    private final Map<String, Integer> keys = new LinkedHashMap<>(16, 0.75f,
+            true);
+    private final Map<Integer, JsonObject> i18ns = new HashMap<>();
+    private final Set<Integer> sent = new HashSet<>();
+    private int nextKey;
+
+    private DatePickerI18nRegistry() {
+    }
+
+    /**
+     * Gets the registry of the given UI, creating it if needed.
+     */
+    static DatePickerI18nRegistry get(UI ui) {
+        DatePickerI18nRegistry registry = ComponentUtil.getData(ui,
+                DatePickerI18nRegistry.class);
+        if (registry == null) {
+            registry = new DatePickerI18nRegistry();
+            ComponentUtil.setData(ui, DatePickerI18nRegistry.class, registry);
+        }
+        return registry;
+    }
+
+    /**
+     * Gets the id under which the client of the UI keeps the objects of this
+     * registry.
+     */
+    String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the key of the given i18n object, registering its content if no
+     * equal object has been registered before. The content is read when
+     * calling this method, later changes to the object are not taken into
+     * account.
+     */
+    int intern(DatePickerI18n i18n) {
+        JsonObject json = toJson(i18n);
+        String content = json.toJson();
+        Integer key = keys.get(content);
+        if (key == null) {
+            key = nextKey++;
+            keys.put(content, key);
+            i18ns.put(key, json);
+            if (keys.size() > MAX_SIZE) {
+                release();
+            }
+        }
+        return key;
+    }
+
+    private void release() {
+        Iterator<Integer> eldest = keys.values().iterator();
+        int key = eldest.next();
+        eldest.remove();
+        i18ns.remove(key);
+        sent.remove(key);
+    }
+
+    /**
+     * Gets the i18n object of the given key to send with it, or a JSON null if
+     * the client of the UI already has it. The key must just have been
+     * interned.
+     */
+    JsonValue takeI18n(int key) {
+        if (sent.add(key)) {
+            return i18ns.get(key);
+        }
+        return Json.createNull();
+    }
+
+    /**
+     * Gets the i18n object of the given key, whether or not it has been sent.
+     * The key must just have been interned.
+     */
+    JsonObject getI18n(int key) {
+        return i18ns.get(key);
+    }
+
+    // like the date picker, leaves out the properties that are not set so
+    // that the defaults of the web component apply
+    private static JsonObject toJson(DatePickerI18n i18n) {
+        JsonObject json = (JsonObject) JsonSerializer.toJson(i18n);
+        for (String key : json.keys()) {
+            if (json.get(key).getType() == JsonType.NULL) {
+                json.remove(key);
+            }
+        }
+        return json;
+    }
+}
@@ -0,0 +1,231 @@
+package com.vaadin.componentfactory;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.communication.PushMode;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies value and constraint updates to many {@link EnhancedDateTimePicker}s
+ * of an UI in batches, for example when updates arrive from message consumer
+ * threads.
+ * <p>
+ * The update methods can be called from any thread. Updates of the same
+ * picker are merged, the last write winning, and all pending updates are
+ * applied in one {@link UI#access(com.vaadin.flow.server.Command)} at most
+ * once per interval, so that the changes reach the browser in one push.
+ * <pre>
+ * DateTimePickerBatchUpdater updater = new DateTimePickerBatchUpdater(ui);
+ * // in the consumer thread
+ * updater.setValue(picker, event.getStart());
+ * </pre>
+ */
+public class DateTimePickerBatchUpdater implements Serializable {
+
+    /**
+     * The default interval between batches, about six frames.
+     */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMillis(100);
+
+    private static ScheduledExecutorService scheduler;
+
+    private final UI ui;
+    private final long intervalMillis;
+    private final Map<EnhancedDateTimePicker, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Creates an updater for the pickers of the given UI, applying the
+     * updates every {@link #DEFAULT_INTERVAL}.
+     *
+     * @param ui
+     *            the UI of the pickers, not {@code null}
+     */
+    public DateTimePickerBatchUpdater(UI ui) {
+        this(ui, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Creates an updater for the pickers of the given UI.
+     *
+     * @param ui
+     *            the UI of the pickers, not {@code null}
+     * @param interval
+     *            the time to collect updates before applying them, not
+     *            {@code null}
+     */
+    public DateTimePickerBatchUpdater(UI ui, Duration interval) {
+        this.ui = Objects.requireNonNull(ui, "UI cannot be null");
+        Objects.requireNonNull(interval, "Interval cannot be null");
+        this.intervalMillis = interval.toMillis();
+    }
+
+    /**
+     * Sets the value of the picker with the next batch.
+     *
+     * @param picker
+     *            the picker to update, not {@code null}
+     * @param value
+     *            the new value, or {@code null} to clear it
+     */
+    public void setValue(EnhancedDateTimePicker picker, LocalDateTime value) {
+        update(picker, update -> {
+            update.valueSet = true;
+            update.value = value;
+        });
+    }
+
+    /**
+     * Sets the minimum of the picker with the next batch.
+     *
+     * @param picker
+     *            the picker to update, not {@code null}
+     * @param min
+     *            the new minimum, or {@code null} to remove it
+     */
+    public void setMin(EnhancedDateTimePicker picker, LocalDateTime min) {
+        update(picker, update -> {
+            update.minSet = true;
+            update.min = min;
+        });
+    }
+
+    /**
+     * Sets the maximum of the picker with the next batch.
+     *
+     * @param picker
+     *            the picker to update, not {@code null}
+     * @param max
+     *            the new maximum, or {@code null} to remove it
+     */
+    public void setMax(EnhancedDateTimePicker picker, LocalDateTime max) {
+        update(picker, update -> {
+            update.maxSet = true;
+            update.max = max;
+        });
+    }
+
+    private void update(EnhancedDateTimePicker picker,
+            Consumer<PendingUpdate> change) {
+        Objects.requireNonNull(picker, "Picker cannot be null");
+        pending.compute(picker, (key, update) -> {
+            PendingUpdate merged = update != null ? update : new PendingUpdate();
+            change.accept(merged);
+            return merged;
+        });
+        if (scheduled.compareAndSet(false, true)) {
+            getScheduler().schedule(this::flush, intervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        try {
+            ui.access(this::apply);
+        } catch (UIDetachedException e) {
+            // Nothing to update anymore
+            pending.clear();
+            scheduled.set(false);
+        }
+    }
+
+    private void apply() {
+        // updates arriving from now on schedule the next batch
+        scheduled.set(false);
+        for (EnhancedDateTimePicker picker : pending.keySet()) {
+            PendingUpdate update = pending.remove(picker);
+            if (update != null) {
+                // one failing picker must not drop the rest of the batch
+                try {
+                    update.applyTo(picker);
+                } catch (RuntimeException e) {
+                    LoggerFactory.getLogger(DateTimePickerBatchUpdater.class)
+                            .warn("Updating a date time picker failed", e);
+                }
+            }
+        }
+        if (ui.getPushConfiguration().getPushMode() == PushMode.MANUAL) {
+            ui.push();
+        }
+    }
+
+    // shared with RelativeBoundsScheduler, the tasks only hand over to
+    // UI.access
+    static synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable,
+                        "enhanced-date-time-picker-updates");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    /**
+     * Shuts down the scheduler, if it has been created, when the Vaadin
+     * services of the application are destroyed. A later update creates a new
+     * one.
+     */
+    static synchronized void shutdownScheduler() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private static class PendingUpdate implements Serializable {
+        private boolean valueSet;
+        private LocalDateTime value;
+        private boolean minSet;
+        private LocalDateTime min;
+        private boolean maxSet;
+        private LocalDateTime max;
+
+        private void applyTo(EnhancedDateTimePicker picker) {
+            // constraints first, so that the value is validated against them
+            if (minSet) {
+                picker.setMin(min);
+            }
+            if (maxSet) {
+                picker.setMax(max);
+            }
+            if (valueSet) {
+                picker.setValue(value);
+            }
+        }
+    }
+}
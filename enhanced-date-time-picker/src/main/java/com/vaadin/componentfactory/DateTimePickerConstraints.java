@@ -0,0 +1,242 @@
+package com.vaadin.componentfactory;
+
+import com.vaadin.flow.data.binder.Binder;
+import com.vaadin.flow.data.binder.Binder.Binding;
+import com.vaadin.flow.data.binder.Binder.BindingBuilder;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.beans.Introspector;
+import java.io.Serializable;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.validation.constraints.Future;
+import javax.validation.constraints.FutureOrPresent;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Past;
+import javax.validation.constraints.PastOrPresent;
+
+/**
+ * Constraints of an {@link EnhancedDateTimePicker} derived from the
+ * annotations of the bean property it is bound to: {@link NotNull} makes the
+ * picker required, {@link Future}, {@link FutureOrPresent}, {@link Past},
+ * {@link PastOrPresent} and {@link Within} give its minimum and maximum.
+ * <p>
+ * The annotations of a bean class are read once per class and JVM. Binding a
+ * picker sets the required indicator, the minimum and the maximum of the
+ * picker, which are used both by its server side validation and by the
+ * client and kept up to date by the {@link RelativeBoundsScheduler}, and adds
+ * a Binder validator that checks the bounds against the time of validation,
+ * taken from the clock of the scheduler and truncated like the bounds of the
+ * picker.
+ * <pre>
+ * DateTimePickerConstraints.bind(binder, Booking.class, startPicker,
+ *         "start", "Choose a time in the next 48 hours");
+ * </pre>
+ */
+public final class DateTimePickerConstraints implements Serializable {
+
+    private static final DateTimePickerConstraints NONE = new DateTimePickerConstraints(
+            false, null, null);
+
+    private static final ClassValue<Map<String, DateTimePickerConstraints>> CACHE = new ClassValue<Map<String, DateTimePickerConstraints>>() {
+        @Override
+        protected Map<String, DateTimePickerConstraints> computeValue(
+                Class<?> beanType) {
+            return Collections.unmodifiableMap(readConstraints(beanType));
+        }
+    };
+
+    private final boolean required;
+    // offsets from now, null when unbounded
+    private final Duration min;
+    private final Duration max;
+
+    private DateTimePickerConstraints(boolean required, Duration min,
+            Duration max) {
+        this.required = required;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Gets the constraints of the given property of the bean class. The
+     * annotations may be on the field or on the getter of the property.
+     *
+     * @param beanType
+     *            the bean class, not {@code null}
+     * @param propertyName
+     *            the name of the property, not {@code null}
+     * @return the constraints of the property, not {@code null}
+     */
+    public static DateTimePickerConstraints of(Class<?> beanType,
+            String propertyName) {
+        Objects.requireNonNull(beanType, "Bean type must not be null");
+        Objects.requireNonNull(propertyName, "Property name must not be null");
+        return CACHE.get(beanType).getOrDefault(propertyName, NONE);
+    }
+
+    /**
+     * Binds the picker to the given property of the bean class, applying the
+     * constraints of the property to the picker and to the binding.
+     *
+     * @param binder
+     *            the binder, created for the bean class, not {@code null}
+     * @param beanType
+     *            the bean class, not {@code null}
+     * @param picker
+     *            the picker to bind, not {@code null}
+     * @param propertyName
+     *            the name of the property, not {@code null}
+     * @param errorMessage
+     *            the error message of a missing or out of bounds value
+     * @return the binding
+     */
+    public static <BEAN> Binding<BEAN, LocalDateTime> bind(
+            Binder<BEAN> binder, Class<BEAN> beanType,
+            EnhancedDateTimePicker picker, String propertyName,
+            String errorMessage) {
+        DateTimePickerConstraints constraints = of(beanType, propertyName);
+        constraints.apply(picker);
+        BindingBuilder<BEAN, LocalDateTime> builder = binder.forField(picker);
+        if (constraints.required) {
+            builder = builder.asRequired(errorMessage);
+        }
+        if (constraints.min != null || constraints.max != null) {
+            builder = builder.withValidator(
+                    value -> value == null || constraints.accepts(value,
+                            RelativeBoundsScheduler.now(picker)),
+                    errorMessage);
+        }
+        return builder.bind(propertyName);
+    }
+
+    /**
+     * Applies the constraints to the picker, setting its required indicator
+     * and its {@link Relative relative} minimum and maximum, which follow the
+     * current time.
+     *
+     * @param picker
+     *            the picker, not {@code null}
+     */
+    public void apply(EnhancedDateTimePicker picker) {
+        picker.setRequiredIndicatorVisible(required);
+        picker.setRelativeMin(relative(min));
+        picker.setRelativeMax(relative(max));
+    }
+
+    private static Relative relative(Duration offset) {
+        return offset == null ? null : Relative.now().plus(offset);
+    }
+
+    /**
+     * Checks whether the value is within the bounds at the given time. The
+     * bounds are resolved like the relative bounds of a picker, from the time
+     * truncated to minutes.
+     *
+     * @param value
+     *            the value to check, not {@code null}
+     * @param now
+     *            the current time, not {@code null}
+     * @return {@code true} if the value is within the bounds
+     */
+    public boolean accepts(LocalDateTime value, LocalDateTime now) {
+        return (min == null || !value.isBefore(relative(min).resolve(now)))
+                && (max == null || !value.isAfter(relative(max).resolve(now)));
+    }
+
+    /**
+     * Gets whether the property is required.
+     *
+     * @return {@code true} if the property is annotated with {@link NotNull}
+     */
+    public boolean isRequired() {
+        return required;
+    }
+
+    private static Map<String, DateTimePickerConstraints> readConstraints(
+            Class<?> beanType) {
+        Map<String, DateTimePickerConstraints> constraints = new HashMap<>();
+        for (Class<?> type = beanType; type != null
+                && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.getType() == LocalDateTime.class) {
+                    merge(constraints, field.getName(), field);
+                }
+            }
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.getReturnType() == LocalDateTime.class
+                        && method.getParameterCount() == 0
+                        && method.getName().startsWith("get")) {
+                    merge(constraints, Introspector.decapitalize(
+                            method.getName().substring(3)), method);
+                }
+            }
+        }
+        return constraints;
+    }
+
+    private static void merge(Map<String, DateTimePickerConstraints> constraints,
+            String propertyName, AnnotatedElement element) {
+        boolean required = element.isAnnotationPresent(NotNull.class);
+        Duration min = null;
+        Duration max = null;
+        if (element.isAnnotationPresent(Future.class)
+                || element.isAnnotationPresent(FutureOrPresent.class)) {
+            min = Duration.ZERO;
+        }
+        if (element.isAnnotationPresent(Past.class)
+                || element.isAnnotationPresent(PastOrPresent.class)) {
+            max = Duration.ZERO;
+        }
+        Within within = element.getAnnotation(Within.class);
+        if (within != null) {
+            Duration hours = Duration.ofHours(within.hours());
+            min = within.past() ? hours.negated() : Duration.ZERO;
+            max = within.past() ? Duration.ZERO : hours;
+        }
+        if (!required && min == null && max == null) {
+            return;
+        }
+        // the field and the getter of a property may both be annotated
+        constraints.merge(propertyName,
+                new DateTimePickerConstraints(required, min, max),
+                (a, b) -> new DateTimePickerConstraints(
+                        a.required || b.required, later(a.min, b.min),
+                        earlier(a.max, b.max)));
+    }
+
+    private static Duration later(Duration a, Duration b) {
+        return a == null ? b : b == null ? a : a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static Duration earlier(Duration a, Duration b) {
+        return a == null ? b : b == null ? a : a.compareTo(b) <= 0 ? a : b;
+    }
+}
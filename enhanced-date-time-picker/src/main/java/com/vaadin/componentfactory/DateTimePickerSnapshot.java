@@ -0,0 +1,123 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Immutable state of an {@link EnhancedDateTimePicker} that can be read from
+ * any thread without the session lock, for example by background jobs.
+ * <p>
+ * The picker publishes a new snapshot whenever its value, minimum, maximum or
+ * invalid state changes, and increments the change count of the snapshot, so
+ * that pollers can compare the count to detect changes cheaply.
+ *
+ * @see EnhancedDateTimePicker#getSnapshot()
+ */
+public final class DateTimePickerSnapshot implements Serializable {
+
+    static final DateTimePickerSnapshot INITIAL = new DateTimePickerSnapshot(
+            null, null, null, false, 0);
+
+    private final LocalDateTime value;
+    private final LocalDateTime min;
+    private final LocalDateTime max;
+    private final boolean invalid;
+    private final long changeCount;
+
+    private DateTimePickerSnapshot(LocalDateTime value, LocalDateTime min,
+            LocalDateTime max, boolean invalid, long changeCount) {
+        this.value = value;
+        this.min = min;
+        this.max = max;
+        this.invalid = invalid;
+        this.changeCount = changeCount;
+    }
+
+    /**
+     * Gets the snapshot following this one with the given state, or this
+     * snapshot if the state has not changed.
+     */
+    DateTimePickerSnapshot next(LocalDateTime value, LocalDateTime min,
+            LocalDateTime max, boolean invalid) {
+        if (Objects.equals(this.value, value) && Objects.equals(this.min, min)
+                && Objects.equals(this.max, max) && this.invalid == invalid) {
+            return this;
+        }
+        return new DateTimePickerSnapshot(value, min, max, invalid,
+                changeCount + 1);
+    }
+
+    /**
+     * Gets the value of the picker.
+     *
+     * @return the value, or {@code null} if empty
+     */
+    public LocalDateTime getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the minimum date and time of the picker.
+     *
+     * @return the minimum, or {@code null} if not set
+     */
+    public LocalDateTime getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the maximum date and time of the picker.
+     *
+     * @return the maximum, or {@code null} if not set
+     */
+    public LocalDateTime getMax() {
+        return max;
+    }
+
+    /**
+     * Gets whether the picker is marked invalid.
+     *
+     * @return {@code true} if the picker is invalid
+     */
+    public boolean isInvalid() {
+        return invalid;
+    }
+
+    /**
+     * Gets the number of changes published by the picker before this
+     * snapshot. A snapshot with a higher count is newer.
+     *
+     * @return the change count
+     */
+    public long getChangeCount() {
+        return changeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DateTimePickerSnapshot[value=" + value + ", min=" + min
+                + ", max=" + max + ", invalid=" + invalid + ", changeCount="
+                + changeCount + "]";
+    }
+}
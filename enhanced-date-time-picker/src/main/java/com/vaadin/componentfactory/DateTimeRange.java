@@ -0,0 +1,109 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Immutable value of an {@link EnhancedDateTimeRangePicker}, holding both the
+ * start and the end of the selected range. Either end can be {@code null}
+ * while the user has not selected it yet.
+ */
+public class DateTimeRange implements Serializable {
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    /**
+     * Creates a new range.
+     *
+     * @param start
+     *            the start of the range, or {@code null}
+     * @param end
+     *            the end of the range, or {@code null}
+     */
+    public DateTimeRange(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Gets the start of the range.
+     *
+     * @return the start of the range, or {@code null} if not selected
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the end of the range.
+     *
+     * @return the end of the range, or {@code null} if not selected
+     */
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Checks whether neither end of the range has been selected.
+     *
+     * @return {@code true} if both start and end are {@code null}
+     */
+    public boolean isEmpty() {
+        return start == null && end == null;
+    }
+
+    /**
+     * Checks whether the start of the range is after its end. A range with a
+     * missing end is never reversed.
+     *
+     * @return {@code true} if both ends are set and start is after end
+     */
+    public boolean isReversed() {
+        return start != null && end != null && start.isAfter(end);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DateTimeRange)) {
+            return false;
+        }
+        DateTimeRange other = (DateTimeRange) obj;
+        return Objects.equals(start, other.start)
+                && Objects.equals(end, other.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return "DateTimeRange[" + start + " - " + end + "]";
+    }
+}
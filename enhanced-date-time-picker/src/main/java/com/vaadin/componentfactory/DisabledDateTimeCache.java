@@ -0,0 +1,122 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caches the result of a {@link DisabledDateTimeProvider} per month. Disabled
+ * dates are kept as one bit per day of the month and disabled times as
+ * compiled {@link TimeIntervalSet}s for the days that have any.
+ */
+class DisabledDateTimeCache implements Serializable {
+
+    private static final int MAX_CACHED_MONTHS = 24;
+
+    private final DisabledDateTimeProvider provider;
+    private final Map<YearMonth, MonthEntry> months = new LruMap<>(
+            MAX_CACHED_MONTHS);
+
+    DisabledDateTimeCache(DisabledDateTimeProvider provider) {
+        this.provider = Objects.requireNonNull(provider,
+                "Provider cannot be null");
+    }
+
+    DisabledDateTimeProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Gets the disabled dates of the month as a bit mask, where bit
+     * {@code n} is set when day {@code n + 1} is disabled.
+     */
+    int getMonthMask(YearMonth month) {
+        return getMonth(month).mask;
+    }
+
+    /**
+     * Gets the disabled times of the dates of the month, indexed by day of
+     * month minus one. Entries are {@code null} for days without disabled
+     * times and for days disabled as a whole.
+     */
+    TimeIntervalSet[] getMonthTimes(YearMonth month) {
+        return getMonth(month).times;
+    }
+
+    boolean isDisabled(LocalDateTime value) {
+        MonthEntry entry = getMonth(YearMonth.from(value));
+        int dayIndex = value.getDayOfMonth() - 1;
+        if ((entry.mask >>> dayIndex & 1) != 0) {
+            return true;
+        }
+        TimeIntervalSet times = entry.times[dayIndex];
+        return times != null && times.contains(value.toLocalTime());
+    }
+
+    private MonthEntry getMonth(YearMonth month) {
+        return months.computeIfAbsent(month, this::evaluate);
+    }
+
+    private MonthEntry evaluate(YearMonth month) {
+        MonthEntry entry = new MonthEntry(month.lengthOfMonth());
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            LocalDate date = month.atDay(day);
+            if (provider.isDateDisabled(date)) {
+                entry.mask |= 1 << (day - 1);
+            } else {
+                TimeIntervalSet times = provider.getDisabledTimes(date);
+                if (times != null && !times.isEmpty()) {
+                    entry.times[day - 1] = times;
+                }
+            }
+        }
+        return entry;
+    }
+
+    private static class MonthEntry implements Serializable {
+        private int mask;
+        private final TimeIntervalSet[] times;
+
+        private MonthEntry(int length) {
+            times = new TimeIntervalSet[length];
+        }
+    }
+
+    static class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private final int maxSize;
+
+        LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
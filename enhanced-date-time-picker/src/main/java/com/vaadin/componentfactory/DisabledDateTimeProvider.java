@@ -0,0 +1,60 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Provides the dates and times that cannot be selected in an
+ * {@link EnhancedDateTimePicker}.
+ * <p>
+ * The provider is evaluated on the server a month at a time and the result is
+ * cached and sent to the client in a compact form, so it is called at most
+ * once per day for as long as the cache is valid.
+ *
+ * @see EnhancedDateTimePicker#setDisabledDateTimeProvider(DisabledDateTimeProvider)
+ * @see EnhancedDateTimePicker#refreshDisabledDateTimes()
+ */
+@FunctionalInterface
+public interface DisabledDateTimeProvider extends Serializable {
+
+    /**
+     * Checks whether the whole given date is disabled.
+     *
+     * @param date
+     *            the date to check
+     * @return {@code true} if no time on the date can be selected
+     */
+    boolean isDateDisabled(LocalDate date);
+
+    /**
+     * Gets the disabled times of the given date. Only called for dates that
+     * are not disabled as a whole.
+     *
+     * @param date
+     *            the date to get the disabled times for
+     * @return the disabled time intervals, not {@code null}
+     */
+    default TimeIntervalSet getDisabledTimes(LocalDate date) {
+        return TimeIntervalSet.EMPTY;
+    }
+}
@@ -3,7 +3,9 @@ package com.vaadin.componentfactory;
 import com.vaadin.componentfactory.EnhancedDatePicker.DatePickerI18n;
 import com.vaadin.flow.component.AbstractSinglePropertyField;
 import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.ClientCallable;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.Focusable;
 import com.vaadin.flow.component.HasHelper;
 import com.vaadin.flow.component.HasSize;
@@ -14,9 +16,21 @@ import com.vaadin.flow.component.HasValue;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.datetimepicker.DateTimePicker;
+import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.dependency.Uses;
 import com.vaadin.flow.component.timepicker.StepsUtil;
+import com.vaadin.flow.data.binder.Validator;
+import com.vaadin.flow.dom.DisabledUpdateMode;
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.i18n.LocaleChangeEvent;
+import com.vaadin.flow.i18n.LocaleChangeObserver;
+import com.vaadin.flow.shared.Registration;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
 
 /*-
  * #%L
@@ -42,18 +56,45 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 @Tag("vaadin-date-time-picker-date-picker")
 class EnhancedDateTimePickerDatePicker
         extends com.vaadin.componentfactory.EnhancedDatePicker {    
 
+    private boolean followingUILocale = true;
+
     @Override
     protected void validate() {
         // Should not change invalid state
     }
+
+    @Override
+    public void setLocale(Locale locale) {
+        followingUILocale = false;
+        super.setLocale(locale);
+    }
+
+    // follows the UI locale until a locale is set, the UILocaleCoordinator
+    // sends its changes to the client and whatever the picker sends again by
+    // itself uses the current one as well
+    @Override
+    public Locale getLocale() {
+        if (!followingUILocale) {
+            return super.getLocale();
+        }
+        UI ui = getUI().orElseGet(UI::getCurrent);
+        return ui != null ? ui.getLocale() : Locale.getDefault();
+    }
     
     void passThroughPresentationValue(LocalDate newPresentationValue) {
       super.setPresentationValue(newPresentationValue);
@@ -76,12 +117,24 @@ class EnhancedDateTimePickerTimePicker
 
 @Tag("vaadin-date-time-picker")
 @Uses(DateTimePicker.class)
+@JsModule("./enhancedDateTimePickerConnector.js")
 public class EnhancedDateTimePicker extends AbstractSinglePropertyField<EnhancedDateTimePicker, LocalDateTime>
         implements HasStyle, HasSize, HasTheme, HasValidation,
-        Focusable<EnhancedDateTimePicker>, HasHelper {
+        Focusable<EnhancedDateTimePicker>, HasHelper, LocaleChangeObserver {
 
     private static final String PROP_AUTO_OPEN_DISABLED = "autoOpenDisabled";
 
+    // months around the selected one that are sent to the client in advance
+    private static final int DISABLED_MONTHS_AHEAD = 1;
+
+    // the calendar renders a few months at a time
+    private static final int MAX_REQUESTED_DISABLED_MONTHS = 12;
+
+    // how far the current time reported by the client may be from the clock
+    // of the RelativeBoundsScheduler for relative input
+    private static final Duration RELATIVE_INPUT_CLOCK_SKEW = Duration
+            .ofMinutes(2);
+
     private EnhancedDateTimePickerDatePicker datePicker = new EnhancedDateTimePickerDatePicker();
     private EnhancedDateTimePickerTimePicker timePicker = new EnhancedDateTimePickerTimePicker();
     private DatePickerI18n i18n;
@@ -97,7 +150,20 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
 
     private LocalDateTime max;
     private LocalDateTime min;
+    private Relative relativeMax;
+    private Relative relativeMin;
     private boolean required;
+    private DisabledDateTimeCache disabledDateTimes;
+    private DailyTimeBounds dailyTimeBounds;
+    // created only with a disabled date time provider, like the listener
+    private Set<YearMonth> sentDisabledMonths;
+    private Registration disabledDateTimesListener;
+    private String errorMessage;
+    private boolean hybridValidation;
+    private DomListenerRegistration invalidSynchronization;
+    private DomListenerRegistration relativeInputListener;
+    private AsyncValidationSupport<LocalDateTime> asyncValidation;
+    private volatile DateTimePickerSnapshot snapshot = DateTimePickerSnapshot.INITIAL;
 
     /**
      * Default constructor.
@@ -152,12 +218,14 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
         addToSlot(datePicker, "date-picker");
         addToSlot(timePicker, "time-picker");
 
-        setLocale(UI.getCurrent().getLocale());
-
         // workaround for https://github.com/vaadin/flow/issues/3496
         setInvalid(false);
 
-        addValueChangeListener(e -> validate());
+        // publishes after validating, as subclasses may skip validation
+        addValueChangeListener(e -> {
+            validate();
+            publishSnapshot();
+        });
     }
 
     /**
@@ -281,6 +349,9 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
         value = sanitizeValue(value);
         super.setValue(value);
         synchronizeChildComponentValues(value);
+        if (value != null) {
+            sendDisabledDateTimes(value.toLocalDate());
+        }
     }
 
     /**
@@ -402,7 +473,8 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
      * step is less than 1 second.
      * <p>
      * <em>NOTE:</em> If the step is less than 900 seconds, the dropdown is
-     * hidden.
+     * hidden, unless the virtualized dropdown is enabled with
+     * {@link #setVirtualizedDropdown(boolean)}.
      * <p>
      * <em>NOTE: changing the step to a larger duration can cause a new
      * {@link com.vaadin.flow.component.HasValue.ValueChangeEvent} to be fired
@@ -419,6 +491,49 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
                 StepsUtil.convertDurationToStepsValue(step));
     }
 
+    /**
+     * Enables the time picker dropdown for steps of at least one minute and
+     * less than 900 seconds, for which the dropdown is hidden by default.
+     *
+     * @param virtualizedDropdown
+     *            {@code true} to show the dropdown for small steps
+     * @see EnhancedTimePicker#setVirtualizedDropdown(boolean)
+     */
+    public void setVirtualizedDropdown(boolean virtualizedDropdown) {
+        timePicker.setVirtualizedDropdown(virtualizedDropdown);
+    }
+
+    /**
+     * Gets whether the time picker dropdown is shown for steps less than 900
+     * seconds.
+     *
+     * @return {@code true} if the virtualized dropdown is enabled
+     */
+    public boolean isVirtualizedDropdown() {
+        return timePicker.isVirtualizedDropdown();
+    }
+
+    /**
+     * Enables changing the time with the arrow and page keys while the time
+     * picker dropdown is closed, without a server round-trip per key press.
+     *
+     * @param keyboardStepping
+     *            {@code true} to change the time with the arrow and page keys
+     * @see EnhancedTimePicker#setKeyboardStepping(boolean)
+     */
+    public void setKeyboardStepping(boolean keyboardStepping) {
+        timePicker.setKeyboardStepping(keyboardStepping);
+    }
+
+    /**
+     * Gets whether the time can be changed with the arrow and page keys.
+     *
+     * @return {@code true} if keyboard stepping is enabled
+     */
+    public boolean isKeyboardStepping() {
+        return timePicker.isKeyboardStepping();
+    }
+
     /**
      * Gets the step of the time picker.
      *
@@ -436,6 +551,31 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
         return StepsUtil.convertStepsValueToDuration(stepsValue);
     }
 
+    /**
+     * Sets the time windows that can be selected on any day.
+     *
+     * @param availableTimes
+     *            the selectable time windows, or {@code null} to allow any
+     *            time
+     * @see EnhancedTimePicker#setAvailableTimes(TimeIntervalSet)
+     */
+    public void setAvailableTimes(TimeIntervalSet availableTimes) {
+        timePicker.setAvailableTimes(availableTimes);
+        if (getValue() != null) {
+            validate();
+        }
+    }
+
+    /**
+     * Gets the time windows that can be selected on any day.
+     *
+     * @return the selectable time windows, or {@code null} if any time is
+     *         allowed
+     */
+    public TimeIntervalSet getAvailableTimes() {
+        return timePicker.getAvailableTimes();
+    }
+
     /**
      * Show or hide the week numbers in the date picker. By default the week
      * numbers are not shown.
@@ -466,6 +606,11 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
     /**
      * Set the Locale for the DateTimePicker. The displayed date and time will
      * be matched to the format used in that locale.
+     * <p>
+     * By default, the DateTimePicker follows the {@link UI#getLocale() UI
+     * locale}. When it changes, the date and time pickers of all the
+     * DateTimePickers of the UI that have no explicit locale are updated in
+     * one client call.
      *
      * @param locale
      *            the locale to set to the DateTimePicker, cannot be null
@@ -473,8 +618,12 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
     public void setLocale(Locale locale) {
         Objects.requireNonNull(locale, "Locale must not be null.");
         this.locale = locale;
+        getUI().ifPresent(ui -> UILocaleCoordinator.get(ui).cancel(datePicker));
         datePicker.setLocale(locale);
         timePicker.setLocale(locale);
+        if (relativeInputListener != null) {
+            sendRelativeInput();
+        }
     }
 
     /**
@@ -484,7 +633,22 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
      */
     @Override
     public Locale getLocale() {
-        return locale;
+        return locale != null ? locale : datePicker.getLocale();
+    }
+
+    /**
+     * Reformats the date and time pickers with the new UI locale, unless a
+     * locale has been explicitly set. This is also called on attach. The
+     * pickers of the UI are updated together in one client call.
+     */
+    @Override
+    public void localeChange(LocaleChangeEvent event) {
+        if (locale == null) {
+            UILocaleCoordinator.get(event.getUI()).schedule(datePicker);
+            if (relativeInputListener != null) {
+                sendRelativeInput();
+            }
+        }
     }
 
     /**
@@ -586,6 +750,7 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
      */
     @Override
     public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
         getElement().setProperty("errorMessage",
                 errorMessage == null ? "" : errorMessage);
     }
@@ -606,6 +771,7 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
     @Override
     public void setInvalid(boolean invalid) {
         getElement().setProperty("invalid", invalid);
+        publishSnapshot();
     }
 
     /**
@@ -618,19 +784,46 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
         return getElement().getProperty("invalid", false);
     }
 
+    /**
+     * Gets the latest snapshot of the value, minimum, maximum and invalid
+     * state of the picker. Unlike the other getters, this method can be called
+     * from any thread without holding the session lock. The snapshot is
+     * replaced, not modified, on each change.
+     *
+     * @return the latest snapshot, not {@code null}
+     */
+    public DateTimePickerSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // called on value, minimum, maximum and invalid state changes, a no-op
+    // when the state is unchanged
+    private void publishSnapshot() {
+        snapshot = snapshot.next(getValue(), min, max, isInvalid());
+    }
+
     /**
      * Gets the validity of the date time picker value.
      *
      * @return the current validity of the value.
      */
-    private boolean isInvalid(LocalDateTime value) {
+    boolean isInvalid(LocalDateTime value) {
         final boolean isRequiredButEmpty = required
                 && Objects.equals(getEmptyValue(), value);
         final boolean isGreaterThanMax = value != null && max != null
                 && value.isAfter(max);
         final boolean isSmallerThanMin = value != null && min != null
                 && value.isBefore(min);
-        return isRequiredButEmpty || isGreaterThanMax || isSmallerThanMin;
+        final boolean isDisabled = value != null && disabledDateTimes != null
+                && disabledDateTimes.isDisabled(value);
+        final TimeIntervalSet availableTimes = timePicker.getAvailableTimes();
+        final boolean isUnavailable = value != null && availableTimes != null
+                && !availableTimes.contains(value.toLocalTime());
+        final boolean isOutOfDailyBounds = value != null
+                && dailyTimeBounds != null
+                && !dailyTimeBounds.isWithinBounds(value);
+        return isRequiredButEmpty || isGreaterThanMax || isSmallerThanMin
+                || isDisabled || isUnavailable || isOutOfDailyBounds;
     }
 
     /**
@@ -639,7 +832,164 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
      * constraints using browser development tools.
      */
     protected void validate() {
-        setInvalid(isInvalid(getValue()));
+        final LocalDateTime value = getValue();
+        final boolean invalid = isInvalid(value);
+        setInvalid(invalid);
+        if (asyncValidation != null) {
+            asyncValidation.validate(value, invalid);
+        }
+    }
+
+    /**
+     * Adds a validator that is run asynchronously whenever the value changes
+     * and passes the synchronous checks, for example for checking
+     * availability against a backend. It works the same way as
+     * {@link EnhancedTimePicker#addAsyncValidator(Validator)}.
+     *
+     * @param validator
+     *            the validator to add, not {@code null}
+     * @return a registration for removing the validator
+     */
+    public Registration addAsyncValidator(Validator<LocalDateTime> validator) {
+        return getAsyncValidation().addValidator(validator);
+    }
+
+    /**
+     * Sets the executor running the asynchronous validators, see
+     * {@link EnhancedTimePicker#setAsyncValidationExecutor(Executor)}.
+     *
+     * @param executor
+     *            the executor, or {@code null} to use the default one
+     * @see #addAsyncValidator(Validator)
+     */
+    public void setAsyncValidationExecutor(Executor executor) {
+        getAsyncValidation().setExecutor(executor);
+    }
+
+    private AsyncValidationSupport<LocalDateTime> getAsyncValidation() {
+        if (asyncValidation == null) {
+            asyncValidation = new AsyncValidationSupport<>(this,
+                    () -> errorMessage);
+        }
+        return asyncValidation;
+    }
+
+    /**
+     * Enables validating on the client as well. The field is then marked
+     * invalid as soon as the user enters a value violating the minimum,
+     * maximum, required, disabled date time and available time constraints, without waiting
+     * for the server. The server validation stays authoritative and only
+     * changes the invalid state when it disagrees with the client.
+     * <p>
+     * By default client-side validation is disabled and the invalid state is
+     * only set by the server.
+     *
+     * @param hybridValidation
+     *            {@code true} to validate on the client as well
+     */
+    public void setHybridValidation(boolean hybridValidation) {
+        this.hybridValidation = hybridValidation;
+        invalidSynchronization = EnhancedTimePickerFieldValidationUtil
+                .synchronizeInvalid(this, invalidSynchronization,
+                        hybridValidation, () -> isInvalid(getValue()),
+                        () -> asyncValidation);
+        if (getElement().getNode().isAttached()) {
+            EnhancedDateTimePickerFieldValidationUtil.disableClientValidation(this);
+        }
+    }
+
+    /**
+     * Gets whether the field is validated on the client as well.
+     *
+     * @return {@code true} if hybrid validation is enabled
+     * @see #setHybridValidation(boolean)
+     */
+    public boolean isHybridValidation() {
+        return hybridValidation;
+    }
+
+    /**
+     * Enables typing relative expressions like {@code now}, {@code +2h},
+     * {@code tomorrow 9} or {@code next mon 14:30} into the date or the time
+     * field, see {@link RelativeInputParser} for the grammar. The expression
+     * is applied in the browser when leaving the field or pressing enter. The
+     * server then parses the same text and corrects the value if the result
+     * differs. It parses with the current time of the browser only if that is
+     * within two minutes of the clock of the {@link RelativeBoundsScheduler},
+     * otherwise with the time of that clock, which should thus be
+     * {@link RelativeBoundsScheduler#setClock(java.time.Clock) set} to the
+     * time zone of the user.
+     * <p>
+     * Besides English, the weekday names, AM/PM strings and digits of the
+     * {@link #getLocale() locale} are understood. By default relative input
+     * is disabled.
+     *
+     * @param relativeInput
+     *            {@code true} to enable relative input
+     */
+    public void setRelativeInput(boolean relativeInput) {
+        if (relativeInput && relativeInputListener == null) {
+            relativeInputListener = getElement()
+                    .addEventListener("enhanced-relative-input",
+                            event -> checkRelativeInput(
+                                    event.getEventData()
+                                            .getString("event.detail.text"),
+                                    event.getEventData()
+                                            .getString("event.detail.now")))
+                    .addEventData("event.detail.text")
+                    .addEventData("event.detail.now");
+        } else if (!relativeInput && relativeInputListener != null) {
+            relativeInputListener.remove();
+            relativeInputListener = null;
+        } else {
+            return;
+        }
+        sendRelativeInput();
+    }
+
+    /**
+     * Gets whether relative expressions can be typed into the fields.
+     *
+     * @return {@code true} if relative input is enabled
+     * @see #setRelativeInput(boolean)
+     */
+    public boolean isRelativeInput() {
+        return relativeInputListener != null;
+    }
+
+    private void sendRelativeInput() {
+        runBeforeClientResponse(ui -> {
+            if (relativeInputListener == null) {
+                getElement().callJsFunction("$connector.setRelativeInput",
+                        null, null);
+                return;
+            }
+            Locale appliedLocale = getLocale();
+            getElement().callJsFunction("$connector.setRelativeInput",
+                    EnhancedTimePicker.toLanguageTag(appliedLocale),
+                    UILocaleCoordinator.get(ui)
+                            .takeRelativeInputVocabulary(appliedLocale));
+        });
+    }
+
+    // the value was already set by the client, which may parse differently,
+    // eg. with an outdated connector, or report a forged current time
+    private void checkRelativeInput(String text, String clientNow) {
+        LocalDateTime now = RelativeBoundsScheduler.now(this);
+        try {
+            LocalDateTime reported = LocalDateTime.parse(clientNow);
+            // the browser clock avoids correcting values at minute changes
+            if (Duration.between(now, reported).abs()
+                    .compareTo(RELATIVE_INPUT_CLOCK_SKEW) <= 0) {
+                now = reported;
+            }
+        } catch (DateTimeParseException e) {
+            // parsed with the server time
+        }
+        RelativeInputParser.of(getLocale()).parse(text, now)
+                .map(this::sanitizeValue)
+                .filter(value -> !value.equals(getValue()))
+                .ifPresent(this::setValue);
     }
 
     /**
@@ -651,8 +1001,17 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
      *            <code>null</code> to remove any minimum constraints
      */
     public void setMin(LocalDateTime min) {
+        if (relativeMin != null) {
+            relativeMin = null;
+            updateRelativeBoundsRegistration();
+        }
+        applyMin(min);
+    }
+
+    private void applyMin(LocalDateTime min) {
         getElement().setProperty("min", FORMATTER.apply(min));
         this.min = min;
+        publishSnapshot();
     }
 
     /**
@@ -675,8 +1034,17 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
      *            <code>null</code> to remove any minimum constraints
      */
     public void setMax(LocalDateTime max) {
+        if (relativeMax != null) {
+            relativeMax = null;
+            updateRelativeBoundsRegistration();
+        }
+        applyMax(max);
+    }
+
+    private void applyMax(LocalDateTime max) {
         getElement().setProperty("max", FORMATTER.apply(max));
         this.max = max;
+        publishSnapshot();
     }
 
     /**
@@ -690,6 +1058,79 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
         return PARSER.apply(getElement().getProperty("max"));
     }
 
+    /**
+     * Sets a minimum relative to the current time, eg.
+     * {@code Relative.now().plusMinutes(15)}. While the picker is attached,
+     * the minimum is re-evaluated by the {@link RelativeBoundsScheduler} of
+     * the UI. Setting a minimum with {@link #setMin(LocalDateTime)} removes
+     * the relative one.
+     *
+     * @param min
+     *            the relative minimum, or <code>null</code> to remove any
+     *            minimum constraints
+     */
+    public void setRelativeMin(Relative min) {
+        relativeMin = min;
+        if (min == null) {
+            applyMin(null);
+        }
+        updateRelativeBoundsRegistration();
+    }
+
+    /**
+     * Gets the minimum relative to the current time.
+     *
+     * @return the relative minimum, or <code>null</code> if there's none
+     */
+    public Relative getRelativeMin() {
+        return relativeMin;
+    }
+
+    /**
+     * Sets a maximum relative to the current time, eg.
+     * {@code Relative.now().plusDays(30)}. While the picker is attached, the
+     * maximum is re-evaluated by the {@link RelativeBoundsScheduler} of the
+     * UI. Setting a maximum with {@link #setMax(LocalDateTime)} removes the
+     * relative one.
+     *
+     * @param max
+     *            the relative maximum, or <code>null</code> to remove any
+     *            maximum constraints
+     */
+    public void setRelativeMax(Relative max) {
+        relativeMax = max;
+        if (max == null) {
+            applyMax(null);
+        }
+        updateRelativeBoundsRegistration();
+    }
+
+    /**
+     * Gets the maximum relative to the current time.
+     *
+     * @return the relative maximum, or <code>null</code> if there's none
+     */
+    public Relative getRelativeMax() {
+        return relativeMax;
+    }
+
+    private void updateRelativeBoundsRegistration() {
+        RelativeBoundsScheduler.updateRegistration(this,
+                relativeMin != null || relativeMax != null,
+                this::updateRelativeBounds);
+    }
+
+    private boolean updateRelativeBounds(LocalDateTime now) {
+        boolean changed = RelativeBoundsScheduler.updateBound(relativeMin,
+                relative -> relative.resolve(now), min, this::applyMin)
+                | RelativeBoundsScheduler.updateBound(relativeMax,
+                        relative -> relative.resolve(now), max, this::applyMax);
+        if (changed && getValue() != null) {
+            validate();
+        }
+        return changed;
+    }
+
     /**
      * Gets the internationalization object previously set for this component.
      *
@@ -707,6 +1148,9 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
     /**
      * Sets the internationalization properties for the date picker inside this
      * component.
+     * <p>
+     * The content of the object is sent to the browser once per UI and shared
+     * by all the pickers of the UI with equal internationalization properties.
      *
      * @param i18n
      *            the internationalized properties, not <code>null</code>
@@ -715,7 +1159,33 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
         Objects.requireNonNull(i18n,
                 "The i18n properties object should not be null");
         this.i18n = i18n;
-        datePicker.setI18n(i18n);
+        sendDatePickerI18n();
+    }
+
+    // the i18n objects are interned per UI, so that pickers sharing the same
+    // content only send its key
+    private void sendDatePickerI18n() {
+        runBeforeClientResponse(ui -> {
+            DatePickerI18nRegistry registry = DatePickerI18nRegistry.get(ui);
+            int key = registry.intern(i18n);
+            getElement().callJsFunction("$connector.setDatePickerI18n",
+                    registry.getId(), key, registry.takeI18n(key));
+        });
+    }
+
+    // called by the client when it lacks the i18n object of the key, eg.
+    // after a reload of a view that preserves its UI
+    @ClientCallable(DisabledUpdateMode.ALWAYS)
+    private void resendDatePickerI18n() {
+        if (i18n == null) {
+            return;
+        }
+        getUI().ifPresent(ui -> {
+            DatePickerI18nRegistry registry = DatePickerI18nRegistry.get(ui);
+            int key = registry.intern(i18n);
+            getElement().callJsFunction("$connector.setDatePickerI18n",
+                    registry.getId(), key, registry.getI18n(key));
+        });
     }
 
     /**
@@ -754,12 +1224,216 @@ public class EnhancedDateTimePicker extends AbstractSinglePropertyField<Enhanced
         return !getElement().getProperty(PROP_AUTO_OPEN_DISABLED, false);
     }
 
+    /**
+     * Sets the provider of dates and times that cannot be selected. Values
+     * falling on a disabled date or time are invalid, and disabled times are
+     * left out from the time picker dropdown.
+     * <p>
+     * The provider is evaluated a month at a time and the result is cached.
+     * Disabled dates are sent to the client as one bit mask per month and
+     * disabled times as interval lists for the days that have any, for the
+     * month of the selected date and the months next to it, and for the
+     * months shown by the calendar when they are scrolled to. Changing the
+     * date within those months does not need a server round-trip to update
+     * the time dropdown.
+     * <p>
+     * The calendar of the date picker shows the dates disabled as a whole
+     * like the dates out of the minimum and maximum, they cannot be picked
+     * and are skipped by the keyboard navigation. A date disabled as a whole
+     * has no times to select in the time picker dropdown.
+     *
+     * @param provider
+     *            the provider of disabled dates and times, or {@code null} to
+     *            remove it
+     * @see #refreshDisabledDateTimes()
+     */
+    public void setDisabledDateTimeProvider(DisabledDateTimeProvider provider) {
+        disabledDateTimes = provider == null ? null
+                : new DisabledDateTimeCache(provider);
+        if (provider != null && disabledDateTimesListener == null) {
+            disabledDateTimesListener = datePicker.addValueChangeListener(
+                    e -> sendDisabledDateTimes(e.getValue()));
+        } else if (provider == null && disabledDateTimesListener != null) {
+            disabledDateTimesListener.remove();
+            disabledDateTimesListener = null;
+        }
+        resetDisabledDateTimes();
+        if (getValue() != null) {
+            validate();
+        }
+    }
+
+    /**
+     * Gets the provider of dates and times that cannot be selected.
+     *
+     * @return the provider, or {@code null} if none has been set
+     */
+    public DisabledDateTimeProvider getDisabledDateTimeProvider() {
+        return disabledDateTimes == null ? null
+                : disabledDateTimes.getProvider();
+    }
+
+    /**
+     * Discards the cached result of the disabled date time provider, so that
+     * it is evaluated again. Call this when the data behind the provider
+     * changes.
+     */
+    public void refreshDisabledDateTimes() {
+        if (disabledDateTimes != null) {
+            disabledDateTimes = new DisabledDateTimeCache(
+                    disabledDateTimes.getProvider());
+        }
+        resetDisabledDateTimes();
+        if (getValue() != null) {
+            validate();
+        }
+    }
+
+    private void resetDisabledDateTimes() {
+        sentDisabledMonths = null;
+        if (getElement().getNode().isAttached()) {
+            runBeforeClientResponse(ui -> getElement()
+                    .callJsFunction("$connector.clearDisabledDateTimes"));
+            sendDisabledDateTimes(getDateValue());
+        }
+    }
+
+    private void sendDisabledDateTimes(LocalDate focusedDate) {
+        YearMonth focusedMonth = YearMonth
+                .from(focusedDate != null ? focusedDate : LocalDate.now());
+        List<YearMonth> months = new ArrayList<>();
+        for (int i = -DISABLED_MONTHS_AHEAD; i <= DISABLED_MONTHS_AHEAD; i++) {
+            months.add(focusedMonth.plusMonths(i));
+        }
+        sendDisabledMonths(months);
+    }
+
+    // called by the client for the months its calendar shows, as yyyy-MM
+    @ClientCallable
+    private void requestDisabledMonths(JsonArray requested) {
+        List<YearMonth> months = new ArrayList<>();
+        for (int i = 0; i < Math.min(requested.length(),
+                MAX_REQUESTED_DISABLED_MONTHS); i++) {
+            try {
+                months.add(YearMonth.parse(requested.getString(i)));
+            } catch (DateTimeParseException e) {
+                // not a month the calendar can show
+            }
+        }
+        sendDisabledMonths(months);
+    }
+
+    private void sendDisabledMonths(List<YearMonth> requested) {
+        if (disabledDateTimes == null
+                || !getElement().getNode().isAttached()) {
+            return;
+        }
+        if (sentDisabledMonths == null) {
+            sentDisabledMonths = new HashSet<>();
+        }
+        JsonObject months = Json.createObject();
+        JsonObject times = Json.createObject();
+        boolean changed = false;
+        for (YearMonth month : requested) {
+            if (!sentDisabledMonths.add(month)) {
+                continue;
+            }
+            changed = true;
+            months.put(month.toString(),
+                    disabledDateTimes.getMonthMask(month));
+            TimeIntervalSet[] monthTimes = disabledDateTimes
+                    .getMonthTimes(month);
+            for (int day = 0; day < monthTimes.length; day++) {
+                if (monthTimes[day] != null) {
+                    times.put(month.atDay(day + 1).toString(),
+                            monthTimes[day].toJson());
+                }
+            }
+        }
+        if (changed) {
+            runBeforeClientResponse(ui -> getElement().callJsFunction(
+                    "$connector.setDisabledDateTimes", months, times));
+        }
+    }
+
+    /**
+     * Sets the minimum and maximum time depending on the selected date, for
+     * example to allow times after 14:00 today and after 08:00 on other days.
+     * <p>
+     * The table is sent to the client once and the time picker applies the
+     * bounds of the selected date on its own, so the time dropdown is correct
+     * right after the date has been changed. The bounds are combined with the
+     * minimum and maximum date time of the picker, and values outside of them
+     * are invalid.
+     *
+     * @param dailyTimeBounds
+     *            the time bounds per date, or {@code null} to remove them
+     */
+    public void setDailyTimeBounds(DailyTimeBounds dailyTimeBounds) {
+        this.dailyTimeBounds = dailyTimeBounds;
+        sendDailyTimeBounds();
+        if (getValue() != null) {
+            validate();
+        }
+    }
+
+    /**
+     * Gets the time bounds per date.
+     *
+     * @return the time bounds per date, or {@code null} if none have been set
+     */
+    public DailyTimeBounds getDailyTimeBounds() {
+        return dailyTimeBounds;
+    }
+
+    private void sendDailyTimeBounds() {
+        runBeforeClientResponse(ui -> getElement().callJsFunction(
+                "$connector.setDailyTimeBounds",
+                dailyTimeBounds == null ? null : dailyTimeBounds.toJson()));
+    }
+
     @Override
     protected void onAttach(AttachEvent attachEvent) {
         super.onAttach(attachEvent);
+        initConnector();
+        sentDisabledMonths = null;
+        sendDisabledDateTimes(getDateValue());
+        if (dailyTimeBounds != null) {
+            sendDailyTimeBounds();
+        }
+        if (i18n != null) {
+            sendDatePickerI18n();
+        }
+        if (relativeMin != null || relativeMax != null) {
+            updateRelativeBoundsRegistration();
+        }
+        if (relativeInputListener != null) {
+            sendRelativeInput();
+        }
         EnhancedDateTimePickerFieldValidationUtil.disableClientValidation(this);
     }
 
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        UILocaleCoordinator.get(detachEvent.getUI()).cancel(datePicker);
+        if (relativeMin != null || relativeMax != null) {
+            RelativeBoundsScheduler.get(detachEvent.getUI()).unregister(this);
+        }
+        super.onDetach(detachEvent);
+    }
+
+    private void initConnector() {
+        runBeforeClientResponse(ui -> ui.getPage().executeJs(
+                "window.Vaadin.Flow.enhancedDateTimePickerConnector.initLazy($0, $1, $2)",
+                getElement(), datePicker.getElement(),
+                timePicker.getElement()));
+    }
+
+    private void runBeforeClientResponse(SerializableConsumer<UI> command) {
+        getElement().getNode().runWhenAttached(ui -> ui
+                .beforeClientResponse(this, context -> command.accept(ui)));
+    }
+
     /**
      * Gets the value of the date picker.
      *
@@ -20,6 +20,9 @@ package com.vaadin.componentfactory;
  * #L%
  */
 
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasValidation;
+import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.internal.StateNode;
 
 public class EnhancedDateTimePickerFieldValidationUtil {
@@ -29,6 +32,17 @@ public class EnhancedDateTimePickerFieldValidationUtil {
     }
 
     static void disableClientValidation(EnhancedDateTimePicker component) {
+        disableClientValidation(component, component::isHybridValidation);
+    }
+
+    static void disableClientValidation(
+            LightweightEnhancedDateTimePicker component) {
+        // the lightweight picker has no hybrid validation
+        disableClientValidation(component, () -> false);
+    }
+
+    private static <C extends Component & HasValidation> void disableClientValidation(
+            C component, SerializableSupplier<Boolean> hybridValidation) {
         // Since this method should be called for every time when the component
         // is attached to the UI, lets check that it is actually so
         if (!component.getElement().getNode().isAttached()) {
@@ -47,12 +61,15 @@ public class EnhancedDateTimePickerFieldValidationUtil {
         componentNode.runWhenAttached(ui -> ui.getInternals().getStateTree()
                 .beforeClientResponse(componentNode,
                         executionContext -> overrideClientValidation(
-                                component)));
+                                component, hybridValidation.get())));
     }
 
-    private static void overrideClientValidation(EnhancedDateTimePicker component) {
+    private static <C extends Component & HasValidation> void overrideClientValidation(
+            C component, boolean hybridValidation) {
         StringBuilder expression = new StringBuilder(
-                "this.validate = function () {return this.checkValidity();};");
+                hybridValidation
+                        ? EnhancedTimePickerFieldValidationUtil.HYBRID_VALIDATION
+                        : "this.validate = function () {return this.checkValidity();};");
 
         if (component.isInvalid()) {
             /*
@@ -0,0 +1,50 @@
+package com.vaadin.componentfactory;
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ties the shared background threads of the pickers to the lifecycle of the
+ * Vaadin services of the application, so that undeploying the application
+ * does not leave them running. Registered automatically through
+ * {@code META-INF/services}.
+ */
+public class EnhancedDateTimePickerServiceInitListener
+        implements VaadinServiceInitListener {
+
+    // the executors are shared by all services of the class loader
+    private static final AtomicInteger services = new AtomicInteger();
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        services.incrementAndGet();
+        event.getSource().addServiceDestroyListener(destroyEvent -> {
+            if (services.decrementAndGet() == 0) {
+                AsyncValidationSupport.shutdownDefaultExecutor();
+                DateTimePickerBatchUpdater.shutdownScheduler();
+            }
+        });
+    }
+}
@@ -0,0 +1,479 @@
+package com.vaadin.componentfactory;
+
+import com.vaadin.componentfactory.EnhancedDatePicker.DatePickerI18n;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.customfield.CustomField;
+import com.vaadin.flow.component.dependency.JsModule;
+import com.vaadin.flow.function.SerializableConsumer;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Objects;
+
+class EnhancedDateTimeRangePickerEndpoint extends EnhancedDateTimePicker {
+
+    @Override
+    protected void validate() {
+        // Should not change invalid state, the range is validated as a whole
+    }
+}
+
+/**
+ * A date time range picker made of two date time pickers, one for the start
+ * and one for the end of the range. The value of the component is a single
+ * {@link DateTimeRange}.
+ * <p>
+ * The start and end pickers constrain each other: the end cannot be before the
+ * selected start and the start cannot be after the selected end. The
+ * constraints are applied on the client right away, without a round-trip. The
+ * range is validated as a whole, once whenever the combined value changes.
+ */
+@JsModule("./enhancedDateTimeRangePickerConnector.js")
+public class EnhancedDateTimeRangePicker extends CustomField<DateTimeRange> {
+
+    private static final String PROP_RANGE_MIN = "rangeMin";
+    private static final String PROP_RANGE_MAX = "rangeMax";
+
+    private final EnhancedDateTimeRangePickerEndpoint startPicker = new EnhancedDateTimeRangePickerEndpoint();
+    private final EnhancedDateTimeRangePickerEndpoint endPicker = new EnhancedDateTimeRangePickerEndpoint();
+
+    private LocalDateTime min;
+    private LocalDateTime max;
+    private boolean required;
+
+    /**
+     * Default constructor.
+     */
+    public EnhancedDateTimeRangePicker() {
+        this((DateTimeRange) null);
+    }
+
+    /**
+     * Convenience constructor to create a date time range picker with a
+     * label.
+     *
+     * @param label
+     *            the label describing the date time range picker
+     * @see #setLabel(String)
+     */
+    public EnhancedDateTimeRangePicker(String label) {
+        this();
+        setLabel(label);
+    }
+
+    /**
+     * Convenience constructor to create a date time range picker with a
+     * pre-selected range.
+     *
+     * @param initialRange
+     *            the pre-selected range in the picker, or {@code null}
+     */
+    public EnhancedDateTimeRangePicker(DateTimeRange initialRange) {
+        super(null);
+        startPicker.getElement().setAttribute("part", "start");
+        endPicker.getElement().setAttribute("part", "end");
+        add(startPicker, endPicker);
+        startPicker.addValueChangeListener(e -> applyConstraints());
+        endPicker.addValueChangeListener(e -> applyConstraints());
+
+        if (initialRange != null) {
+            setValue(initialRange);
+        }
+
+        // workaround for https://github.com/vaadin/flow/issues/3496
+        setInvalid(false);
+
+        addValueChangeListener(e -> validate());
+    }
+
+    /**
+     * Sets the selected range. The value can be cleared by setting
+     * {@code null}.
+     * <p>
+     * Both ends will be truncated to millisecond precision, as that is the
+     * maximum that the time picker supports.
+     *
+     * @param value
+     *            the range to select, or {@code null}
+     */
+    @Override
+    public void setValue(DateTimeRange value) {
+        super.setValue(sanitizeValue(value));
+    }
+
+    private static DateTimeRange sanitizeValue(DateTimeRange value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return new DateTimeRange(truncate(value.getStart()),
+                truncate(value.getEnd()));
+    }
+
+    private static LocalDateTime truncate(LocalDateTime value) {
+        return value == null ? null : value.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @Override
+    protected DateTimeRange generateModelValue() {
+        return sanitizeValue(
+                new DateTimeRange(startPicker.getValue(), endPicker.getValue()));
+    }
+
+    @Override
+    protected void setPresentationValue(DateTimeRange newPresentationValue) {
+        startPicker.setValue(newPresentationValue == null ? null
+                : newPresentationValue.getStart());
+        endPicker.setValue(newPresentationValue == null ? null
+                : newPresentationValue.getEnd());
+    }
+
+    /**
+     * Gets the validity of the given range in a single pass over required,
+     * minimum, maximum and the order of the two ends.
+     *
+     * @return {@code true} if the range is invalid
+     */
+    private boolean isInvalid(DateTimeRange value) {
+        final boolean isEmpty = value == null || value.isEmpty();
+        final boolean isRequiredButIncomplete = required && (isEmpty
+                || value.getStart() == null || value.getEnd() == null);
+        if (isEmpty) {
+            return isRequiredButIncomplete;
+        }
+        final LocalDateTime start = value.getStart();
+        final LocalDateTime end = value.getEnd();
+        final boolean isSmallerThanMin = min != null
+                && ((start != null && start.isBefore(min))
+                        || (end != null && end.isBefore(min)));
+        final boolean isGreaterThanMax = max != null
+                && ((start != null && start.isAfter(max))
+                        || (end != null && end.isAfter(max)));
+        return isRequiredButIncomplete || isSmallerThanMin || isGreaterThanMax
+                || value.isReversed();
+    }
+
+    /**
+     * Performs server-side validation of the current value. This is needed
+     * because it is possible to circumvent the client-side validation
+     * constraints using browser development tools.
+     */
+    protected void validate() {
+        setInvalid(isInvalid(getValue()));
+    }
+
+    /**
+     * Sets the minimum date and time for both ends of the range.
+     *
+     * @param min
+     *            the minimum date and time that is allowed to be set, or
+     *            <code>null</code> to remove any minimum constraints
+     */
+    public void setMin(LocalDateTime min) {
+        this.min = min;
+        getElement().setProperty(PROP_RANGE_MIN, format(min));
+        applyConstraints();
+    }
+
+    /**
+     * Gets the minimum date and time for both ends of the range.
+     *
+     * @return the minimum date and time that is allowed to be set, or
+     *         <code>null</code> if there's no minimum
+     */
+    public LocalDateTime getMin() {
+        return min;
+    }
+
+    /**
+     * Sets the maximum date and time for both ends of the range.
+     *
+     * @param max
+     *            the maximum date and time that is allowed to be set, or
+     *            <code>null</code> to remove any maximum constraints
+     */
+    public void setMax(LocalDateTime max) {
+        this.max = max;
+        getElement().setProperty(PROP_RANGE_MAX, format(max));
+        applyConstraints();
+    }
+
+    /**
+     * Gets the maximum date and time for both ends of the range.
+     *
+     * @return the maximum date and time that is allowed to be set, or
+     *         <code>null</code> if there's no maximum
+     */
+    public LocalDateTime getMax() {
+        return max;
+    }
+
+    private static String format(LocalDateTime value) {
+        return value == null ? ""
+                : value.truncatedTo(ChronoUnit.MILLIS).toString();
+    }
+
+    /**
+     * Sets whether both ends of the range are required.
+     *
+     * @param requiredIndicatorVisible
+     *            the value of the requiredIndicatorVisible to be set
+     */
+    @Override
+    public void setRequiredIndicatorVisible(boolean requiredIndicatorVisible) {
+        super.setRequiredIndicatorVisible(requiredIndicatorVisible);
+        this.required = requiredIndicatorVisible;
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) {
+        super.setReadOnly(readOnly);
+        startPicker.setReadOnly(readOnly);
+        endPicker.setReadOnly(readOnly);
+    }
+
+    /**
+     * Sets the label of the start picker.
+     *
+     * @param label
+     *            the String value to set
+     */
+    public void setStartLabel(String label) {
+        startPicker.setLabel(label);
+    }
+
+    /**
+     * Gets the label of the start picker.
+     *
+     * @return the {@code label} property of the start picker
+     */
+    public String getStartLabel() {
+        return startPicker.getLabel();
+    }
+
+    /**
+     * Sets the label of the end picker.
+     *
+     * @param label
+     *            the String value to set
+     */
+    public void setEndLabel(String label) {
+        endPicker.setLabel(label);
+    }
+
+    /**
+     * Gets the label of the end picker.
+     *
+     * @return the {@code label} property of the end picker
+     */
+    public String getEndLabel() {
+        return endPicker.getLabel();
+    }
+
+    /**
+     * Set the Locale for both ends of the range.
+     *
+     * @param locale
+     *            the locale to set, cannot be null
+     */
+    public void setLocale(Locale locale) {
+        Objects.requireNonNull(locale, "Locale must not be null.");
+        startPicker.setLocale(locale);
+        endPicker.setLocale(locale);
+    }
+
+    /**
+     * Gets the Locale for this range picker.
+     *
+     * @return the locale used for this range picker
+     */
+    @Override
+    public Locale getLocale() {
+        return startPicker.getLocale();
+    }
+
+    /**
+     * Sets the step of the time pickers of both ends.
+     *
+     * @param step
+     *            the step to set, not {@code null} and should divide a day or
+     *            an hour evenly
+     * @see EnhancedDateTimePicker#setStep(Duration)
+     */
+    public void setStep(Duration step) {
+        startPicker.setStep(step);
+        endPicker.setStep(step);
+    }
+
+    /**
+     * Gets the step of the time pickers.
+     *
+     * @return the {@code step} property from the pickers
+     */
+    public Duration getStep() {
+        return startPicker.getStep();
+    }
+
+    /**
+     * Sets the internationalization properties for the date pickers of both
+     * ends.
+     *
+     * @param i18n
+     *            the internationalized properties, not <code>null</code>
+     */
+    public void setDatePickerI18n(DatePickerI18n i18n) {
+        startPicker.setDatePickerI18n(i18n);
+        endPicker.setDatePickerI18n(i18n);
+    }
+
+    /**
+     * Gets the internationalization object previously set for this component.
+     *
+     * @return the i18n object, or <code>null</code> if not set
+     */
+    public DatePickerI18n getDatePickerI18n() {
+        return startPicker.getDatePickerI18n();
+    }
+
+    /**
+     * Sets the Pattern for formatting the value of the date pickers.
+     *
+     * @param dateFormattingPattern
+     *            the pattern for formatting value of the date pickers
+     */
+    public void setDatePattern(String dateFormattingPattern) {
+        startPicker.setDatePattern(dateFormattingPattern);
+        endPicker.setDatePattern(dateFormattingPattern);
+    }
+
+    /**
+     * Gets the Pattern for the date pickers.
+     *
+     * @return the pattern for formatting value of the date pickers
+     */
+    public String getDatePattern() {
+        return startPicker.getDatePattern();
+    }
+
+    /**
+     * Sets the patterns for parsing the value of the date pickers.
+     *
+     * @param dateParsers
+     *            the array of patterns used for parsing the date pickers'
+     *            value
+     */
+    public void setDateParsers(String... dateParsers) {
+        startPicker.setDateParsers(dateParsers);
+        endPicker.setDateParsers(dateParsers);
+    }
+
+    /**
+     * Gets the parser patterns for the date pickers.
+     *
+     * @return an array of the parser patterns
+     */
+    public String[] getDateParsers() {
+        return startPicker.getDateParsers();
+    }
+
+    /**
+     * Sets the Pattern for formatting the value of the time pickers.
+     *
+     * @param timeFormattingPattern
+     *            the pattern for formatting value of the time pickers
+     */
+    public void setTimePattern(String timeFormattingPattern) {
+        startPicker.setTimePattern(timeFormattingPattern);
+        endPicker.setTimePattern(timeFormattingPattern);
+    }
+
+    /**
+     * Gets the Pattern for the time pickers.
+     *
+     * @return the pattern for formatting value of the time pickers
+     */
+    public String getTimePattern() {
+        return startPicker.getTimePattern();
+    }
+
+    /**
+     * Sets the patterns for parsing the value of the time pickers.
+     *
+     * @param timeParsers
+     *            the array of patterns used for parsing the time pickers'
+     *            value
+     */
+    public void setTimeParsers(String... timeParsers) {
+        startPicker.setTimeParsers(timeParsers);
+        endPicker.setTimeParsers(timeParsers);
+    }
+
+    /**
+     * Gets the parser patterns for the time pickers.
+     *
+     * @return an array of the parser patterns
+     */
+    public String[] getTimeParsers() {
+        return startPicker.getTimeParsers();
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        initConnector();
+    }
+
+    private void initConnector() {
+        runBeforeClientResponse(ui -> ui.getPage().executeJs(
+                "window.Vaadin.Flow.enhancedDateTimeRangePickerConnector.initLazy($0, $1, $2)",
+                getElement(), startPicker.getElement(),
+                endPicker.getElement()));
+    }
+
+    // the connector applies the same bounds right away on the client, they
+    // are set on the ends here as well so that the properties the server
+    // sends again agree with them
+    private void applyConstraints() {
+        LocalDateTime start = startPicker.getValue();
+        LocalDateTime end = endPicker.getValue();
+        startPicker.setMin(min);
+        startPicker.setMax(earlier(end, max));
+        endPicker.setMin(later(start, min));
+        endPicker.setMax(max);
+    }
+
+    private static LocalDateTime earlier(LocalDateTime a, LocalDateTime b) {
+        return a == null || (b != null && b.isBefore(a)) ? b : a;
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a == null || (b != null && b.isAfter(a)) ? b : a;
+    }
+
+    private void runBeforeClientResponse(SerializableConsumer<UI> command) {
+        getElement().getNode().runWhenAttached(ui -> ui
+                .beforeClientResponse(this, context -> command.accept(ui)));
+    }
+}
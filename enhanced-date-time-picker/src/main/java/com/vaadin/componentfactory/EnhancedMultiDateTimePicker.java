@@ -0,0 +1,528 @@
+package com.vaadin.componentfactory;
+
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.customfield.CustomField;
+import com.vaadin.flow.component.dependency.JsModule;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.internal.StateTree;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+class EnhancedMultiDateTimePickerEntry extends EnhancedDateTimePicker {
+
+    @Override
+    protected void validate() {
+        // Should not change invalid state, the timestamps are validated as a
+        // whole
+    }
+}
+
+/**
+ * A field for selecting many timestamps, for example sample collection
+ * times. Each date and time selected in the entry date time picker is added to
+ * the value and the picker is cleared for the next one. The selected
+ * timestamps are listed below the picker, each with a button for removing it.
+ * <p>
+ * The value is a sorted {@code long[]} of distinct epoch milliseconds, the
+ * date and time of the picker being in the {@link #setZoneId(ZoneId) zone} of
+ * the field. {@link #getValue()} returns a copy, while the old value of a
+ * value change event is the array of the field and must not be modified.
+ * Membership and range checks are binary searches. Only the timestamps added
+ * and removed since the last response are sent to the browser.
+ */
+@JsModule("./enhancedMultiDateTimePickerConnector.js")
+public class EnhancedMultiDateTimePicker extends CustomField<long[]> {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final EnhancedMultiDateTimePickerEntry picker = new EnhancedMultiDateTimePickerEntry();
+    private final Element list = new Element("div");
+
+    private ZoneId zone;
+    private Instant min;
+    private Instant max;
+    private boolean required;
+    // the values the browser has, for sending only the difference
+    private long[] sentValues;
+    private StateTree.ExecutionRegistration pendingUpdate;
+
+    /**
+     * Creates a field in the system default time zone.
+     */
+    public EnhancedMultiDateTimePicker() {
+        this(ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates a field in the given time zone.
+     *
+     * @param zone
+     *            the time zone of the field, not {@code null}
+     */
+    public EnhancedMultiDateTimePicker(ZoneId zone) {
+        super(EMPTY);
+        this.zone = Objects.requireNonNull(zone, "Zone cannot be null");
+        picker.getElement().setAttribute("part", "picker");
+        list.setAttribute("part", "timestamps");
+        add(picker);
+        getElement().appendChild(list);
+
+        picker.addValueChangeListener(e -> {
+            if (e.getValue() != null && e.isFromClient()) {
+                add(e.getValue());
+                picker.clear();
+            }
+        });
+        list.addEventListener("timestamp-remove", e -> {
+            long value = (long) e.getEventData()
+                    .getNumber("event.detail.value");
+            // the browser removed it already
+            sentValues = without(sentValues, value);
+            if (!isReadOnly()) {
+                setModelValue(without(values(), value), true);
+            } else {
+                // sends it back
+                scheduleUpdate();
+            }
+        }).addEventData("event.detail.value");
+
+        // workaround for https://github.com/vaadin/flow/issues/3496
+        setInvalid(false);
+
+        addValueChangeListener(e -> validate());
+    }
+
+    /**
+     * Creates a field in the given time zone with a label.
+     *
+     * @param label
+     *            the label describing the field
+     * @param zone
+     *            the time zone of the field, not {@code null}
+     */
+    public EnhancedMultiDateTimePicker(String label, ZoneId zone) {
+        this(zone);
+        setLabel(label);
+    }
+
+    /**
+     * Sets the selected timestamps. The array is copied, sorted and freed of
+     * duplicates.
+     *
+     * @param value
+     *            the epoch milliseconds to select, or {@code null} for none
+     */
+    @Override
+    public void setValue(long[] value) {
+        super.setValue(value == null || value.length == 0 ? EMPTY
+                : Arrays.stream(value).sorted().distinct().toArray());
+    }
+
+    /**
+     * Gets the selected timestamps.
+     *
+     * @return a copy of the sorted epoch milliseconds, not {@code null}
+     */
+    @Override
+    public long[] getValue() {
+        return values().clone();
+    }
+
+    // the array of the field, not to be modified or handed out
+    private long[] values() {
+        return super.getValue();
+    }
+
+    @Override
+    protected boolean valueEquals(long[] value1, long[] value2) {
+        return Arrays.equals(value1, value2);
+    }
+
+    @Override
+    protected long[] generateModelValue() {
+        // the entry picker only adds to the value, see the constructor
+        return values();
+    }
+
+    @Override
+    protected void setPresentationValue(long[] newPresentationValue) {
+        scheduleUpdate();
+    }
+
+    /**
+     * Adds the given date time, in the zone of the field, to the selected
+     * timestamps. A local date time in a daylight saving time gap is moved
+     * forward and one in an overlap gets the earlier offset.
+     *
+     * @param value
+     *            the date time to add, not {@code null}
+     * @return {@code true} if the timestamp was added, {@code false} if it
+     *         was already selected
+     */
+    public boolean add(LocalDateTime value) {
+        Objects.requireNonNull(value, "Value cannot be null");
+        return add(value.atZone(zone).toInstant());
+    }
+
+    /**
+     * Adds the given instant, truncated to milliseconds, to the selected
+     * timestamps.
+     *
+     * @param instant
+     *            the instant to add, not {@code null}
+     * @return {@code true} if the timestamp was added, {@code false} if it
+     *         was already selected
+     */
+    public boolean add(Instant instant) {
+        long[] values = values();
+        long value = instant.toEpochMilli();
+        int index = Arrays.binarySearch(values, value);
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        long[] added = new long[values.length + 1];
+        System.arraycopy(values, 0, added, 0, index);
+        added[index] = value;
+        System.arraycopy(values, index, added, index + 1,
+                values.length - index);
+        setModelValue(added, false);
+        return true;
+    }
+
+    /**
+     * Removes the given instant, truncated to milliseconds, from the selected
+     * timestamps.
+     *
+     * @param instant
+     *            the instant to remove, not {@code null}
+     * @return {@code true} if the timestamp was removed, {@code false} if it
+     *         was not selected
+     */
+    public boolean remove(Instant instant) {
+        long[] values = values();
+        long[] removed = without(values, instant.toEpochMilli());
+        if (removed == values) {
+            return false;
+        }
+        setModelValue(removed, false);
+        return true;
+    }
+
+    /**
+     * Checks whether the given instant, truncated to milliseconds, is
+     * selected.
+     *
+     * @param instant
+     *            the instant to check, not {@code null}
+     * @return {@code true} if the timestamp is selected
+     */
+    public boolean contains(Instant instant) {
+        return Arrays.binarySearch(values(), instant.toEpochMilli()) >= 0;
+    }
+
+    /**
+     * Counts the selected timestamps in the given range.
+     *
+     * @param from
+     *            the start of the range, inclusive, not {@code null}
+     * @param to
+     *            the end of the range, exclusive, not {@code null}
+     * @return the number of timestamps in the range
+     */
+    public int countBetween(Instant from, Instant to) {
+        long[] values = values();
+        return Math.max(0, lowerBound(values, to.toEpochMilli())
+                - lowerBound(values, from.toEpochMilli()));
+    }
+
+    /**
+     * Checks whether any selected timestamp is in the given range.
+     *
+     * @param from
+     *            the start of the range, inclusive, not {@code null}
+     * @param to
+     *            the end of the range, exclusive, not {@code null}
+     * @return {@code true} if there are timestamps in the range
+     */
+    public boolean containsAnyBetween(Instant from, Instant to) {
+        return countBetween(from, to) > 0;
+    }
+
+    // index of the first value not less than the given one
+    private static int lowerBound(long[] values, long value) {
+        int index = Arrays.binarySearch(values, value);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static long[] without(long[] values, long value) {
+        int index = Arrays.binarySearch(values, value);
+        if (index < 0) {
+            return values;
+        }
+        long[] removed = new long[values.length - 1];
+        System.arraycopy(values, 0, removed, 0, index);
+        System.arraycopy(values, index + 1, removed, index,
+                values.length - index - 1);
+        return removed;
+    }
+
+    /**
+     * Checks the selected timestamps against the required, minimum and
+     * maximum constraints. As the values are sorted, only the first and the
+     * last one are compared.
+     */
+    private boolean isInvalid(long[] value) {
+        if (value.length == 0) {
+            return required;
+        }
+        return (min != null && value[0] < min.toEpochMilli())
+                || (max != null && value[value.length - 1] > max.toEpochMilli());
+    }
+
+    /**
+     * Performs server-side validation of the current value. This is needed
+     * because it is possible to circumvent the client-side validation
+     * constraints using browser development tools.
+     */
+    protected void validate() {
+        setInvalid(isInvalid(values()));
+    }
+
+    /**
+     * Sets the earliest timestamp that can be selected.
+     *
+     * @param min
+     *            the minimum, or {@code null} to remove any minimum
+     *            constraints
+     */
+    public void setMin(Instant min) {
+        this.min = min;
+        picker.setMin(toLocal(min));
+        validate();
+    }
+
+    /**
+     * Gets the earliest timestamp that can be selected.
+     *
+     * @return the minimum, or {@code null} if there's no minimum
+     */
+    public Instant getMin() {
+        return min;
+    }
+
+    /**
+     * Sets the latest timestamp that can be selected.
+     *
+     * @param max
+     *            the maximum, or {@code null} to remove any maximum
+     *            constraints
+     */
+    public void setMax(Instant max) {
+        this.max = max;
+        picker.setMax(toLocal(max));
+        validate();
+    }
+
+    /**
+     * Gets the latest timestamp that can be selected.
+     *
+     * @return the maximum, or {@code null} if there's no maximum
+     */
+    public Instant getMax() {
+        return max;
+    }
+
+    private LocalDateTime toLocal(Instant instant) {
+        return instant == null ? null
+                : LocalDateTime.ofInstant(instant, zone);
+    }
+
+    @Override
+    public void setRequiredIndicatorVisible(boolean requiredIndicatorVisible) {
+        super.setRequiredIndicatorVisible(requiredIndicatorVisible);
+        this.required = requiredIndicatorVisible;
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) {
+        super.setReadOnly(readOnly);
+        picker.setReadOnly(readOnly);
+        list.setAttribute("readonly", readOnly);
+    }
+
+    /**
+     * Sets the time zone of the field. The selected timestamps are kept and
+     * shown in the new zone.
+     *
+     * @param zone
+     *            the time zone, not {@code null}
+     */
+    public void setZoneId(ZoneId zone) {
+        Objects.requireNonNull(zone, "Zone cannot be null");
+        if (zone.equals(this.zone)) {
+            return;
+        }
+        this.zone = zone;
+        picker.setMin(toLocal(min));
+        picker.setMax(toLocal(max));
+        sendFormat();
+    }
+
+    /**
+     * Gets the time zone of the field.
+     *
+     * @return the time zone
+     */
+    public ZoneId getZoneId() {
+        return zone;
+    }
+
+    /**
+     * Sets the locale of the entry picker and of the listed timestamps.
+     *
+     * @param locale
+     *            the locale, not {@code null}
+     */
+    public void setLocale(Locale locale) {
+        picker.setLocale(locale);
+        sendFormat();
+    }
+
+    /**
+     * Gets the locale of the field.
+     *
+     * @return the locale
+     */
+    @Override
+    public Locale getLocale() {
+        return picker.getLocale();
+    }
+
+    /**
+     * Gets the date time picker used for entering new timestamps, for
+     * configuring its step, patterns or placeholders.
+     *
+     * @return the entry picker
+     */
+    public EnhancedDateTimePicker getPicker() {
+        return picker;
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        // the browser starts from an empty list
+        sentValues = null;
+        sendFormat();
+        scheduleUpdate();
+    }
+
+    private void sendFormat() {
+        runBeforeClientResponse(ui -> callConnector("setFormat",
+                EnhancedTimePicker.toLanguageTag(getLocale()), zone.getId()));
+    }
+
+    private void scheduleUpdate() {
+        if (pendingUpdate != null) {
+            return;
+        }
+        getElement().getNode().runWhenAttached(ui -> {
+            if (pendingUpdate == null) {
+                pendingUpdate = ui.beforeClientResponse(this, context -> {
+                    pendingUpdate = null;
+                    sendUpdate();
+                });
+            }
+        });
+    }
+
+    // sends the difference of the two sorted arrays in one pass, or the
+    // whole list when the browser has none
+    private void sendUpdate() {
+        long[] values = values();
+        if (sentValues == null) {
+            callConnector("reset", toJson(values, values.length));
+            sentValues = values;
+            return;
+        }
+        long[] added = new long[values.length];
+        long[] removed = new long[sentValues.length];
+        int addedCount = 0;
+        int removedCount = 0;
+        int i = 0;
+        int j = 0;
+        while (i < values.length || j < sentValues.length) {
+            if (j == sentValues.length
+                    || (i < values.length && values[i] < sentValues[j])) {
+                added[addedCount++] = values[i++];
+            } else if (i == values.length || values[i] > sentValues[j]) {
+                removed[removedCount++] = sentValues[j++];
+            } else {
+                i++;
+                j++;
+            }
+        }
+        if (removedCount > 0) {
+            callConnector("remove", toJson(removed, removedCount));
+        }
+        if (addedCount > 0) {
+            callConnector("add", toJson(added, addedCount));
+        }
+        sentValues = values;
+    }
+
+    // initializes the connector first, whichever call comes first after
+    // attaching
+    private void callConnector(String function, Serializable... arguments) {
+        list.executeJs(
+                "window.Vaadin.Flow.enhancedMultiDateTimePickerConnector.initLazy(this);"
+                        + "this.$connector." + function + "($0, $1)",
+                arguments);
+    }
+
+    private static JsonArray toJson(long[] values, int length) {
+        JsonArray json = Json.createArray();
+        for (int i = 0; i < length; i++) {
+            // epoch milliseconds are exact as JavaScript numbers
+            json.set(i, values[i]);
+        }
+        return json;
+    }
+
+    private void runBeforeClientResponse(SerializableConsumer<UI> command) {
+        getElement().getNode().runWhenAttached(ui -> ui
+                .beforeClientResponse(this, context -> command.accept(ui)));
+    }
+}
@@ -2,17 +2,23 @@ package com.vaadin.componentfactory;
 
 import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.HasEnabled;
 import com.vaadin.flow.component.HasHelper;
 import com.vaadin.flow.component.HasSize;
 import com.vaadin.flow.component.HasValidation;
 import com.vaadin.flow.component.HasValue;
 import com.vaadin.flow.component.UI;
-import com.vaadin.flow.component.dependency.JavaScript;
+import com.vaadin.flow.component.dependency.JsModule;
+import com.vaadin.flow.component.dependency.NpmPackage;
 import com.vaadin.flow.component.timepicker.GeneratedVaadinTimePicker;
 import com.vaadin.flow.component.timepicker.StepsUtil;
+import com.vaadin.flow.data.binder.Validator;
+import com.vaadin.flow.dom.DomListenerRegistration;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.i18n.LocaleChangeEvent;
+import com.vaadin.flow.i18n.LocaleChangeObserver;
 import com.vaadin.flow.internal.StateTree;
 import com.vaadin.flow.shared.Registration;
 
@@ -37,16 +43,19 @@ import com.vaadin.flow.shared.Registration;
  */
 
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
-@JavaScript("./date-fns-limited.min.js")
-@JavaScript("./enhancedTimepickerConnector.js")
+@NpmPackage(value = "date-fns", version = "2.28.0")
+@JsModule("./enhancedTimepickerConnectorModule.js")
 public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePicker, LocalTime>
-    implements HasSize, HasValidation, HasEnabled, HasHelper {
+    implements HasSize, HasValidation, HasEnabled, HasHelper,
+    LocaleChangeObserver {
 
     private static final SerializableFunction<String, LocalTime> PARSER = valueFromClient -> {
         return valueFromClient == null || valueFromClient.isEmpty() ? null
@@ -63,11 +72,20 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
 
     private LocalTime max;
     private LocalTime min;
+    private Relative relativeMax;
+    private Relative relativeMin;
     private boolean required;
     private StateTree.ExecutionRegistration pendingLocaleUpdate;
 
     private String formattingPattern;
     private String[] parserPatterns;
+    private TimeIntervalSet availableTimes;
+    private boolean virtualizedDropdown;
+    private boolean keyboardStepping;
+    private String errorMessage;
+    private boolean hybridValidation;
+    private DomListenerRegistration invalidSynchronization;
+    private AsyncValidationSupport<LocalTime> asyncValidation;
 
     /**
      * Default constructor.
@@ -217,6 +235,7 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
 
     @Override
     public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
         super.setErrorMessage(errorMessage);
     }
 
@@ -255,7 +274,8 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
         final boolean isRequiredButEmpty = required && Objects.equals(getEmptyValue(), value);
         final boolean isGreaterThanMax  = value != null && max != null && value.isAfter(max);
         final boolean isSmallerThenMin = value != null && min != null && value.isBefore(min);
-        return isRequiredButEmpty || isGreaterThanMax || isSmallerThenMin;
+        final boolean isUnavailable = value != null && availableTimes != null && !availableTimes.contains(value);
+        return isRequiredButEmpty || isGreaterThanMax || isSmallerThenMin || isUnavailable;
     }
 
     @Override
@@ -314,7 +334,8 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
      * step is less than 1 second.
      * <p>
      * <em>NOTE:</em> If the step is less than 900 seconds, the dropdown is
-     * hidden.
+     * hidden, unless the virtualized dropdown is enabled with
+     * {@link #setVirtualizedDropdown(boolean)}.
      * <p>
      * <em>NOTE: changing the step to a larger duration can cause a new
      * {@link com.vaadin.flow.component.HasValue.ValueChangeEvent} to be fired
@@ -348,6 +369,64 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
         return StepsUtil.convertStepsValueToDuration(getStepDouble());
     }
 
+    /**
+     * Enables the dropdown for steps of at least one minute and less than 900
+     * seconds, for which the dropdown is hidden by default.
+     * <p>
+     * The items are generated on the client and each one is formatted only
+     * when the dropdown renders it, so a dropdown with 1440 one minute items
+     * costs about as much to open as one with 96 quarter hour items.
+     *
+     * @param virtualizedDropdown
+     *            {@code true} to show the dropdown for small steps
+     * @see #setStep(Duration)
+     */
+    public void setVirtualizedDropdown(boolean virtualizedDropdown) {
+        this.virtualizedDropdown = virtualizedDropdown;
+        runBeforeClientResponse(ui -> getElement().callJsFunction(
+                "$connector.setVirtualizedDropdown", virtualizedDropdown));
+    }
+
+    /**
+     * Gets whether the dropdown is shown for steps less than 900 seconds.
+     *
+     * @return {@code true} if the virtualized dropdown is enabled
+     * @see #setVirtualizedDropdown(boolean)
+     */
+    public boolean isVirtualizedDropdown() {
+        return virtualizedDropdown;
+    }
+
+    /**
+     * Enables changing the time with the keyboard while the dropdown is
+     * closed. ArrowUp and ArrowDown change the hour, minute or second under
+     * the caret by one unit, or by the step when it is a finer division of
+     * the next larger unit, eg. by 15 minutes with a 15 minute step. PageUp and
+     * PageDown change it by the next larger unit, and the hours by 12.
+     * <p>
+     * The time is formatted on the client, and the value is sent to the
+     * server only once the user stops stepping.
+     *
+     * @param keyboardStepping
+     *            {@code true} to change the time with the arrow and page keys
+     * @see #setStep(Duration)
+     */
+    public void setKeyboardStepping(boolean keyboardStepping) {
+        this.keyboardStepping = keyboardStepping;
+        runBeforeClientResponse(ui -> getElement().callJsFunction(
+                "$connector.setKeyboardStepping", keyboardStepping));
+    }
+
+    /**
+     * Gets whether the time can be changed with the arrow and page keys.
+     *
+     * @return {@code true} if keyboard stepping is enabled
+     * @see #setKeyboardStepping(boolean)
+     */
+    public boolean isKeyboardStepping() {
+        return keyboardStepping;
+    }
+
     @Override
     public Registration addInvalidChangeListener(
             ComponentEventListener<InvalidChangeEvent<EnhancedTimePicker>> listener) {
@@ -361,7 +440,59 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
      */
     @Override
     protected void validate() {
-        setInvalid(isInvalid(getValue()));
+        final LocalTime value = getValue();
+        final boolean invalid = isInvalid(value);
+        setInvalid(invalid);
+        if (asyncValidation != null) {
+            asyncValidation.validate(value, invalid);
+        }
+    }
+
+    /**
+     * Adds a validator that is run asynchronously whenever the value changes
+     * and passes the synchronous checks, for example for checking
+     * availability against a backend.
+     * <p>
+     * Validators run one after another on the
+     * {@link #setAsyncValidationExecutor(Executor) validation executor},
+     * without holding the session lock. A change of the value cancels the
+     * pending validation of the previous value. The first error is shown by
+     * marking the field invalid with the error message of the result, which is
+     * applied through {@link UI#access(com.vaadin.flow.server.Command)}, so
+     * server push or polling is needed for it to reach the browser right
+     * away.
+     *
+     * @param validator
+     *            the validator to add, not {@code null}
+     * @return a registration for removing the validator
+     */
+    public Registration addAsyncValidator(Validator<LocalTime> validator) {
+        return getAsyncValidation().addValidator(validator);
+    }
+
+    /**
+     * Sets the executor running the asynchronous validators. By default a
+     * shared executor is used, running each validation in a virtual thread
+     * when the JVM supports them and in a pooled daemon thread otherwise.
+     * It is shut down when the Vaadin service is destroyed.
+     * <p>
+     * The executor is not serialized with the session, after deserialization
+     * the default one is used until this method is called again.
+     *
+     * @param executor
+     *            the executor, or {@code null} to use the default one
+     * @see #addAsyncValidator(Validator)
+     */
+    public void setAsyncValidationExecutor(Executor executor) {
+        getAsyncValidation().setExecutor(executor);
+    }
+
+    private AsyncValidationSupport<LocalTime> getAsyncValidation() {
+        if (asyncValidation == null) {
+            asyncValidation = new AsyncValidationSupport<>(this,
+                    () -> errorMessage);
+        }
+        return asyncValidation;
     }
 
     @Override
@@ -372,9 +503,30 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
         if (formattingPattern != null) {
             setPattern(formattingPattern);
         }               
+        if (availableTimes != null) {
+            sendAvailableTimes();
+        }
+        if (virtualizedDropdown) {
+            setVirtualizedDropdown(true);
+        }
+        if (keyboardStepping) {
+            setKeyboardStepping(true);
+        }
+        if (relativeMin != null || relativeMax != null) {
+            updateRelativeBoundsRegistration();
+        }
         EnhancedTimePickerFieldValidationUtil.disableClientValidation(this);
     }
 
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        UILocaleCoordinator.get(detachEvent.getUI()).cancel(this);
+        if (relativeMin != null || relativeMax != null) {
+            RelativeBoundsScheduler.get(detachEvent.getUI()).unregister(this);
+        }
+        super.onDetach(detachEvent);
+    }
+
     private void initConnector() {
         // can't run this with getElement().executeJavaScript(...) since then
         // setLocale might be called before this causing client side error
@@ -385,18 +537,15 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
 
     /**
      * Set the Locale for the Time Picker. The displayed time will be formatted
-     * by the browser using the given locale.
+     * in the browser with the time format of the given locale.
      * <p>
      * By default, the locale is {@code null} until the component is attached to
      * an UI, and then locale is set to {@link UI#getLocale()}, unless a locale
      * has been explicitly set before that.
      * <p>
-     * The time formatting is done in the browser using the <a href=
-     * "https://developer.mozilla.org/en-US/docs/Web/JavaScript/Reference/Global_Objects/Date/toLocaleTimeString">Date.toLocaleTimeString()</a>
-     * function.
-     * <p>
-     * If for some reason the browser doesn't support the given locale, the
-     * en-US locale is used.
+     * The time format, ie. the AM/PM strings, the separator and the digits,
+     * comes from the locale data of the server JVM, so that all browsers show
+     * the same format.
      * <p>
      * <em>NOTE: only the language + country/region codes are used</em>. This
      * means that the script and variant information is not used and supported.
@@ -417,6 +566,7 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
         }
 
         this.locale = locale;
+        getUI().ifPresent(ui -> UILocaleCoordinator.get(ui).cancel(this));
         requestLocaleUpdate();
     }
 
@@ -426,6 +576,7 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
      * By default, the locale is {@code null} until the component is attached to
      * an UI, and then locale is set to {@link UI#getLocale()}, unless
      * {@link #setLocale(Locale)} has been explicitly called before that.
+     * Until then, the time picker follows the changes of the UI locale.
      *
      * @return the locale used for this time picker
      */
@@ -438,10 +589,27 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
       }
     }
       
+    /**
+     * Reformats the time picker with the new UI locale, unless a locale has
+     * been explicitly set. The pickers of the UI are updated together in one
+     * client call.
+     */
+    @Override
+    public void localeChange(LocaleChangeEvent event) {
+        if (locale == null) {
+            requestLocaleUpdate();
+        }
+    }
+
     private void requestLocaleUpdate() {
       getUI().ifPresent(ui -> {
           if (pendingLocaleUpdate != null) {
               pendingLocaleUpdate.remove();
+              pendingLocaleUpdate = null;
+          }
+          if (locale == null) {
+              UILocaleCoordinator.get(ui).schedule(this);
+              return;
           }
           pendingLocaleUpdate = ui.beforeClientResponse(this, context -> {
               pendingLocaleUpdate = null;
@@ -452,16 +620,21 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
 
     private void executeLocaleUpdate() {
         Locale appliedLocale = getLocale();
+        runBeforeClientResponse(ui -> getElement().callJsFunction(
+                "$connector.setLocale", toLanguageTag(appliedLocale),
+                UILocaleCoordinator.get(ui).takeMetadata(appliedLocale)));
+    }
+
+    static String toLanguageTag(Locale locale) {
         // we could support script & variant, but that requires more work on
         // client side to detect the different
         // number characters for other scripts (current only Arabic there)
         StringBuilder bcp47LanguageTag = new StringBuilder(
-                appliedLocale.getLanguage());
-        if (!appliedLocale.getCountry().isEmpty()) {
-            bcp47LanguageTag.append("-").append(appliedLocale.getCountry());
+                locale.getLanguage());
+        if (!locale.getCountry().isEmpty()) {
+            bcp47LanguageTag.append("-").append(locale.getCountry());
         }
-        runBeforeClientResponse(ui -> getElement().callJsFunction(
-                "$connector.setLocale", bcp47LanguageTag.toString()));
+        return bcp47LanguageTag.toString();
     }
 
     /**
@@ -511,6 +684,77 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
     }
 
 
+    /**
+     * Enables validating on the client as well. The field is then marked
+     * invalid as soon as the user enters a value violating the minimum,
+     * maximum, required and available time constraints, without waiting
+     * for the server. The server validation stays authoritative and only
+     * changes the invalid state when it disagrees with the client.
+     * <p>
+     * By default client-side validation is disabled and the invalid state is
+     * only set by the server.
+     *
+     * @param hybridValidation
+     *            {@code true} to validate on the client as well
+     */
+    public void setHybridValidation(boolean hybridValidation) {
+        this.hybridValidation = hybridValidation;
+        invalidSynchronization = EnhancedTimePickerFieldValidationUtil
+                .synchronizeInvalid(this, invalidSynchronization,
+                        hybridValidation, () -> isInvalid(getValue()),
+                        () -> asyncValidation);
+        if (getElement().getNode().isAttached()) {
+            EnhancedTimePickerFieldValidationUtil.disableClientValidation(this);
+        }
+    }
+
+    /**
+     * Gets whether the field is validated on the client as well.
+     *
+     * @return {@code true} if hybrid validation is enabled
+     * @see #setHybridValidation(boolean)
+     */
+    public boolean isHybridValidation() {
+        return hybridValidation;
+    }
+
+    /**
+     * Sets the time windows that can be selected. Times outside of them are
+     * invalid and left out from the dropdown.
+     * <p>
+     * The windows are compiled into a sorted array of interval bounds, so
+     * checking a value is a binary search regardless of how many windows
+     * there are. The same {@link TimeIntervalSet} instance can be shared by
+     * any number of pickers.
+     *
+     * @param availableTimes
+     *            the selectable time windows, or {@code null} to allow any
+     *            time
+     */
+    public void setAvailableTimes(TimeIntervalSet availableTimes) {
+        this.availableTimes = availableTimes;
+        sendAvailableTimes();
+        if (getValue() != null) {
+            validate();
+        }
+    }
+
+    /**
+     * Gets the time windows that can be selected.
+     *
+     * @return the selectable time windows, or {@code null} if any time is
+     *         allowed
+     */
+    public TimeIntervalSet getAvailableTimes() {
+        return availableTimes;
+    }
+
+    private void sendAvailableTimes() {
+        runBeforeClientResponse(ui -> getElement().callJsFunction(
+                "$connector.setAvailableTimes",
+                availableTimes == null ? null : availableTimes.toJson()));
+    }
+
     /**
      * Sets the minimum time in the time picker. Times before that will be
      * disabled in the popup.
@@ -520,6 +764,14 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
      *            <code>null</code> to remove any minimum constraints
      */
     public void setMin(LocalTime min) {
+        if (relativeMin != null) {
+            relativeMin = null;
+            updateRelativeBoundsRegistration();
+        }
+        applyMin(min);
+    }
+
+    private void applyMin(LocalTime min) {
         this.min = min;
         super.setMin(format(min));
     }
@@ -574,6 +826,14 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
      *            <code>null</code> to remove any maximum constraints
      */
     public void setMax(LocalTime max) {
+        if (relativeMax != null) {
+            relativeMax = null;
+            updateRelativeBoundsRegistration();
+        }
+        applyMax(max);
+    }
+
+    private void applyMax(LocalTime max) {
         this.max = max;
         super.setMax(format(max));
     }
@@ -620,6 +880,81 @@ public class EnhancedTimePicker extends GeneratedVaadinTimePicker<EnhancedTimePi
         return this.getMax();
     }
 
+    /**
+     * Sets a minimum relative to the current time, eg.
+     * {@code Relative.now().plusMinutes(15)}, as a time of the current day.
+     * When it falls on the next day, no time of the current day can be
+     * selected. While the picker is attached, the minimum is re-evaluated by
+     * the {@link RelativeBoundsScheduler} of the UI. Setting a minimum with
+     * {@link #setMin(LocalTime)} removes the relative one.
+     *
+     * @param min
+     *            the relative minimum, or <code>null</code> to remove any
+     *            minimum constraints
+     */
+    public void setRelativeMin(Relative min) {
+        relativeMin = min;
+        if (min == null) {
+            applyMin(null);
+        }
+        updateRelativeBoundsRegistration();
+    }
+
+    /**
+     * Gets the minimum relative to the current time.
+     *
+     * @return the relative minimum, or <code>null</code> if there's none
+     */
+    public Relative getRelativeMin() {
+        return relativeMin;
+    }
+
+    /**
+     * Sets a maximum relative to the current time, eg.
+     * {@code Relative.now().plusHours(2)}, as a time of the current day. When
+     * it falls on the previous day, no time of the current day can be
+     * selected. While the picker is attached, the maximum is re-evaluated by
+     * the {@link RelativeBoundsScheduler} of the UI. Setting a maximum with
+     * {@link #setMax(LocalTime)} removes the relative one.
+     *
+     * @param max
+     *            the relative maximum, or <code>null</code> to remove any
+     *            maximum constraints
+     */
+    public void setRelativeMax(Relative max) {
+        relativeMax = max;
+        if (max == null) {
+            applyMax(null);
+        }
+        updateRelativeBoundsRegistration();
+    }
+
+    /**
+     * Gets the maximum relative to the current time.
+     *
+     * @return the relative maximum, or <code>null</code> if there's none
+     */
+    public Relative getRelativeMax() {
+        return relativeMax;
+    }
+
+    private void updateRelativeBoundsRegistration() {
+        RelativeBoundsScheduler.updateRegistration(this,
+                relativeMin != null || relativeMax != null,
+                this::updateRelativeBounds);
+    }
+
+    private boolean updateRelativeBounds(LocalDateTime now) {
+        boolean changed = RelativeBoundsScheduler.updateBound(relativeMin,
+                relative -> relative.resolveTimeOfDay(now), min, this::applyMin)
+                | RelativeBoundsScheduler.updateBound(relativeMax,
+                        relative -> relative.resolveTimeOfDay(now), max, this::applyMax);
+        if (changed && getValue() != null) {
+            validate();
+        }
+        return changed;
+    }
+
     /**
      * Sets displaying a clear button in the time picker when it has value.
      * <p>
@@ -20,14 +20,74 @@ package com.vaadin.componentfactory;
  * #L%
  */
 
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasValidation;
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.internal.StateNode;
 
 public class EnhancedTimePickerFieldValidationUtil {
 
+    /*
+     * Validates on the client against the same constraints as the server,
+     * including the restricted dates and times known to the connector, and
+     * shows the result immediately. The invalid property is synchronized to
+     * the server, so the server validation does not need to write it back
+     * when both agree. Shared with EnhancedDateTimePickerFieldValidationUtil.
+     */
+    static final String HYBRID_VALIDATION = "this.validate = function () {"
+            + "const valid = this.checkValidity()"
+            + " && !(this.value && this.$connector && this.$connector.isValueRestricted(this.value));"
+            + "this.invalid = !valid;"
+            + "return valid;"
+            + "};";
+
     private EnhancedTimePickerFieldValidationUtil() {
         // utility class should not be instantiated
     }
 
+    /**
+     * Adds or removes the listener keeping the server authoritative over the
+     * invalid state with hybrid validation. The client only shows its result
+     * sooner, an invalid state it sends is replaced by the one derived on the
+     * server from the synchronous checks and a failed asynchronous
+     * validation. Shared with EnhancedDateTimePicker.
+     *
+     * @param component
+     *            the picker
+     * @param registration
+     *            the current listener registration, or {@code null}
+     * @param hybridValidation
+     *            whether hybrid validation is enabled
+     * @param synchronousInvalid
+     *            derives the invalid state from the synchronous checks
+     * @param asyncValidation
+     *            supplies the asynchronous validation of the picker, which
+     *            may be {@code null}
+     * @return the listener registration, or {@code null} if there is none
+     */
+    static <C extends Component & HasValidation> DomListenerRegistration synchronizeInvalid(
+            C component, DomListenerRegistration registration,
+            boolean hybridValidation,
+            SerializableSupplier<Boolean> synchronousInvalid,
+            SerializableSupplier<AsyncValidationSupport<?>> asyncValidation) {
+        if (hybridValidation && registration == null) {
+            return component.getElement().addPropertyChangeListener("invalid",
+                    "invalid-changed", event -> {
+                        if (event.isUserOriginated()) {
+                            AsyncValidationSupport<?> async = asyncValidation
+                                    .get();
+                            component.setInvalid(synchronousInvalid.get()
+                                    || (async != null && async.isFailed()));
+                        }
+                    });
+        } else if (!hybridValidation && registration != null) {
+            registration.remove();
+            return null;
+        }
+        return registration;
+    }
+
     static void disableClientValidation(EnhancedTimePicker component) {
         // Since this method should be called for every time when the component
         // is attached to the UI, lets check that it is actually so
@@ -52,7 +112,8 @@ public class EnhancedTimePickerFieldValidationUtil {
 
     private static <T> void overrideClientValidation(EnhancedTimePicker component) {
         StringBuilder expression = new StringBuilder(
-                "this.validate = function () {return this.checkValidity();};");
+                component.isHybridValidation() ? HYBRID_VALIDATION
+                        : "this.validate = function () {return this.checkValidity();};");
 
         if (component.isInvalid()) {
             /*
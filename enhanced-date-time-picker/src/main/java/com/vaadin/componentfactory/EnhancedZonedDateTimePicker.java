@@ -0,0 +1,546 @@
+package com.vaadin.componentfactory;
+
+import com.vaadin.flow.component.AbstractCompositeField;
+import com.vaadin.flow.component.HasHelper;
+import com.vaadin.flow.component.HasSize;
+import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.component.HasValidation;
+import com.vaadin.flow.data.binder.Result;
+import com.vaadin.flow.data.binder.ValueContext;
+import com.vaadin.flow.data.converter.Converter;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+class EnhancedZonedDateTimePickerContent extends EnhancedDateTimePicker {
+
+    @Override
+    protected void validate() {
+        // Should not change invalid state, the zoned value is validated by
+        // the owning field
+    }
+}
+
+/**
+ * A date time picker whose value is a {@link ZonedDateTime} in a configurable
+ * time zone. The user selects the local date and time in that zone.
+ * <p>
+ * A local date time that does not exist in the zone, because it falls into a
+ * daylight saving time gap, is invalid and the value of the field is
+ * {@code null}. A local date time that exists twice, because it falls into an
+ * overlap, is resolved according to the {@link OverlapResolution}.
+ * <p>
+ * Use {@link #getInstantConverter()} to bind the picker to an {@link Instant}
+ * property.
+ */
+public class EnhancedZonedDateTimePicker extends
+        AbstractCompositeField<EnhancedDateTimePicker, EnhancedZonedDateTimePicker, ZonedDateTime>
+        implements HasStyle, HasSize, HasValidation, HasHelper {
+
+    /**
+     * How a local date time that falls into a daylight saving time overlap,
+     * and thus exists twice, is resolved.
+     */
+    public enum OverlapResolution {
+        /**
+         * Use the earlier offset, usually the daylight saving time one.
+         */
+        EARLIER_OFFSET,
+        /**
+         * Use the later offset, usually the standard time one.
+         */
+        LATER_OFFSET,
+        /**
+         * Consider the value invalid.
+         */
+        INVALID
+    }
+
+    private ZoneId zone;
+    private OverlapResolution overlapResolution = OverlapResolution.EARLIER_OFFSET;
+    private ZonedDateTime min;
+    private ZonedDateTime max;
+    private boolean updatingPresentation;
+
+    /**
+     * Creates a picker in the system default time zone.
+     */
+    public EnhancedZonedDateTimePicker() {
+        this(ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates a picker in the given time zone.
+     *
+     * @param zone
+     *            the time zone of the picker, not {@code null}
+     */
+    public EnhancedZonedDateTimePicker(ZoneId zone) {
+        super(null);
+        this.zone = Objects.requireNonNull(zone, "Zone cannot be null");
+
+        getContent().addValueChangeListener(e -> {
+            if (!updatingPresentation) {
+                setModelValue(toZoned(e.getValue()), e.isFromClient());
+                validate();
+            }
+        });
+        addValueChangeListener(e -> validate());
+    }
+
+    /**
+     * Creates a picker in the given time zone with a label.
+     *
+     * @param label
+     *            the label describing the picker
+     * @param zone
+     *            the time zone of the picker, not {@code null}
+     */
+    public EnhancedZonedDateTimePicker(String label, ZoneId zone) {
+        this(zone);
+        setLabel(label);
+    }
+
+    @Override
+    protected EnhancedDateTimePicker initContent() {
+        return new EnhancedZonedDateTimePickerContent();
+    }
+
+    /**
+     * Sets the selected value. The value is converted to the time zone of the
+     * picker and truncated to millisecond precision.
+     *
+     * @param value
+     *            the value to select, or {@code null}
+     */
+    @Override
+    public void setValue(ZonedDateTime value) {
+        super.setValue(normalize(value));
+    }
+
+    @Override
+    protected void setPresentationValue(ZonedDateTime newPresentationValue) {
+        updatingPresentation = true;
+        try {
+            getContent().setValue(toLocal(newPresentationValue));
+        } finally {
+            updatingPresentation = false;
+        }
+    }
+
+    /**
+     * Gets the selected value as an instant.
+     *
+     * @return the selected instant, or {@code null}
+     */
+    public Instant getInstant() {
+        ZonedDateTime value = getValue();
+        return value == null ? null : value.toInstant();
+    }
+
+    /**
+     * Sets the selected value as an instant, shown in the time zone of the
+     * picker.
+     *
+     * @param instant
+     *            the instant to select, or {@code null}
+     */
+    public void setInstant(Instant instant) {
+        setValue(instant == null ? null : instant.atZone(zone));
+    }
+
+    /**
+     * Gets a converter for binding this picker to an {@link Instant}
+     * property, for example
+     * {@code binder.forField(picker).withConverter(picker.getInstantConverter())}.
+     * The converter uses the time zone the picker has at conversion time.
+     *
+     * @return the converter between the picker value and instants
+     */
+    public Converter<ZonedDateTime, Instant> getInstantConverter() {
+        return new Converter<ZonedDateTime, Instant>() {
+            @Override
+            public Result<Instant> convertToModel(ZonedDateTime value,
+                    ValueContext context) {
+                return Result.ok(value == null ? null : value.toInstant());
+            }
+
+            @Override
+            public ZonedDateTime convertToPresentation(Instant value,
+                    ValueContext context) {
+                return value == null ? null : value.atZone(zone);
+            }
+        };
+    }
+
+    /**
+     * Sets the time zone of the picker. The selected instant and the minimum
+     * and maximum are kept and shown in the new zone.
+     *
+     * @param zone
+     *            the time zone, not {@code null}
+     */
+    public void setZoneId(ZoneId zone) {
+        Objects.requireNonNull(zone, "Zone cannot be null");
+        if (zone.equals(this.zone)) {
+            return;
+        }
+        this.zone = zone;
+        getContent().setMin(toLocal(min));
+        getContent().setMax(toLocal(max));
+        ZonedDateTime value = getValue();
+        if (value != null) {
+            setValue(value);
+        } else if (getContent().getValue() != null) {
+            // a local date time in a gap may exist in the new zone
+            setModelValue(toZoned(getContent().getValue()), false);
+        }
+        validate();
+    }
+
+    /**
+     * Gets the time zone of the picker.
+     *
+     * @return the time zone
+     */
+    public ZoneId getZoneId() {
+        return zone;
+    }
+
+    /**
+     * Sets how a local date time that falls into a daylight saving time
+     * overlap is resolved. Default is
+     * {@link OverlapResolution#EARLIER_OFFSET}.
+     *
+     * @param overlapResolution
+     *            the resolution, not {@code null}
+     */
+    public void setOverlapResolution(OverlapResolution overlapResolution) {
+        this.overlapResolution = Objects.requireNonNull(overlapResolution,
+                "Overlap resolution cannot be null");
+        LocalDateTime local = getContent().getValue();
+        if (local != null) {
+            setModelValue(toZoned(local), false);
+        }
+        validate();
+    }
+
+    /**
+     * Gets how a local date time that falls into a daylight saving time
+     * overlap is resolved.
+     *
+     * @return the overlap resolution
+     */
+    public OverlapResolution getOverlapResolution() {
+        return overlapResolution;
+    }
+
+    /**
+     * Sets the minimum value. It is shown in the time zone of the picker.
+     *
+     * @param min
+     *            the minimum value, or {@code null} to remove any minimum
+     *            constraints
+     */
+    public void setMin(ZonedDateTime min) {
+        this.min = normalize(min);
+        getContent().setMin(toLocal(this.min));
+        validate();
+    }
+
+    /**
+     * Gets the minimum value in the time zone of the picker.
+     *
+     * @return the minimum value, or {@code null} if there's no minimum
+     */
+    public ZonedDateTime getMin() {
+        return min == null ? null : min.withZoneSameInstant(zone);
+    }
+
+    /**
+     * Sets the maximum value. It is shown in the time zone of the picker.
+     *
+     * @param max
+     *            the maximum value, or {@code null} to remove any maximum
+     *            constraints
+     */
+    public void setMax(ZonedDateTime max) {
+        this.max = normalize(max);
+        getContent().setMax(toLocal(this.max));
+        validate();
+    }
+
+    /**
+     * Gets the maximum value in the time zone of the picker.
+     *
+     * @return the maximum value, or {@code null} if there's no maximum
+     */
+    public ZonedDateTime getMax() {
+        return max == null ? null : max.withZoneSameInstant(zone);
+    }
+
+    private ZonedDateTime normalize(ZonedDateTime value) {
+        return value == null ? null
+                : value.withZoneSameInstant(zone)
+                        .truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private LocalDateTime toLocal(ZonedDateTime value) {
+        return value == null ? null
+                : value.withZoneSameInstant(zone).toLocalDateTime();
+    }
+
+    /**
+     * Resolves the local date time in the zone of the picker. Returns
+     * {@code null} for a local date time in a gap, and for one in an overlap
+     * unless the overlap resolution picks an offset, so that a value the user
+     * did not enter never reaches the model.
+     */
+    private ZonedDateTime toZoned(LocalDateTime local) {
+        if (local == null) {
+            return null;
+        }
+        List<ZoneOffset> offsets = zone.getRules().getValidOffsets(local);
+        if (offsets.size() == 1) {
+            return ZonedDateTime.ofStrict(local, offsets.get(0), zone);
+        }
+        if (offsets.isEmpty()
+                || overlapResolution == OverlapResolution.INVALID) {
+            return null;
+        }
+        return ZonedDateTime.ofStrict(local, offsets.get(
+                overlapResolution == OverlapResolution.LATER_OFFSET ? 1 : 0),
+                zone);
+    }
+
+    /**
+     * Gets the validity of the current value. Minimum and maximum are compared
+     * as instants, so they hold across daylight saving time transitions.
+     */
+    private boolean isInvalid(ZonedDateTime value) {
+        LocalDateTime local = getContent().getValue();
+        if (getContent().isInvalid(local)) {
+            return true;
+        }
+        if (value == null) {
+            // a local date time without a value is in a gap or ambiguous
+            return local != null;
+        }
+        final boolean isSmallerThanMin = min != null
+                && value.toInstant().isBefore(min.toInstant());
+        final boolean isGreaterThanMax = max != null
+                && value.toInstant().isAfter(max.toInstant());
+        return isSmallerThanMin || isGreaterThanMax;
+    }
+
+    /**
+     * Performs server-side validation of the current value. This is needed
+     * because it is possible to circumvent the client-side validation
+     * constraints using browser development tools.
+     */
+    protected void validate() {
+        setInvalid(isInvalid(getValue()));
+    }
+
+    @Override
+    public void setErrorMessage(String errorMessage) {
+        getContent().setErrorMessage(errorMessage);
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return getContent().getErrorMessage();
+    }
+
+    @Override
+    public void setInvalid(boolean invalid) {
+        getContent().setInvalid(invalid);
+    }
+
+    @Override
+    public boolean isInvalid() {
+        return getContent().isInvalid();
+    }
+
+    @Override
+    public void setRequiredIndicatorVisible(boolean requiredIndicatorVisible) {
+        getContent().setRequiredIndicatorVisible(requiredIndicatorVisible);
+    }
+
+    @Override
+    public boolean isRequiredIndicatorVisible() {
+        return getContent().isRequiredIndicatorVisible();
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) {
+        super.setReadOnly(readOnly);
+        getContent().setReadOnly(readOnly);
+    }
+
+    /**
+     * Sets the label for this field.
+     *
+     * @param label
+     *            the String value to set
+     */
+    public void setLabel(String label) {
+        getContent().setLabel(label);
+    }
+
+    /**
+     * Gets the label of this field.
+     *
+     * @return the {@code label} property of the picker
+     */
+    public String getLabel() {
+        return getContent().getLabel();
+    }
+
+    /**
+     * Set the Locale for the picker.
+     *
+     * @param locale
+     *            the locale to set, cannot be null
+     */
+    public void setLocale(Locale locale) {
+        getContent().setLocale(locale);
+    }
+
+    /**
+     * Gets the Locale for this picker.
+     *
+     * @return the locale used for this picker
+     */
+    @Override
+    public Locale getLocale() {
+        return getContent().getLocale();
+    }
+
+    /**
+     * Sets the step of the time picker.
+     *
+     * @param step
+     *            the step to set, not {@code null} and should divide a day or
+     *            an hour evenly
+     * @see EnhancedDateTimePicker#setStep(Duration)
+     */
+    public void setStep(Duration step) {
+        getContent().setStep(step);
+    }
+
+    /**
+     * Gets the step of the time picker.
+     *
+     * @return the {@code step} property from the picker
+     */
+    public Duration getStep() {
+        return getContent().getStep();
+    }
+
+    /**
+     * Sets the Pattern for formatting the value of the date picker.
+     *
+     * @param dateFormattingPattern
+     *            the pattern for formatting value of the date picker
+     */
+    public void setDatePattern(String dateFormattingPattern) {
+        getContent().setDatePattern(dateFormattingPattern);
+    }
+
+    /**
+     * Gets the Pattern for the date picker.
+     *
+     * @return the pattern for formatting value of the date picker
+     */
+    public String getDatePattern() {
+        return getContent().getDatePattern();
+    }
+
+    /**
+     * Sets the patterns for parsing the value of the date picker.
+     *
+     * @param dateParsers
+     *            the array of patterns used for parsing the date picker's
+     *            value
+     */
+    public void setDateParsers(String... dateParsers) {
+        getContent().setDateParsers(dateParsers);
+    }
+
+    /**
+     * Gets the parser patterns for the date picker.
+     *
+     * @return an array of the parser patterns
+     */
+    public String[] getDateParsers() {
+        return getContent().getDateParsers();
+    }
+
+    /**
+     * Sets the Pattern for formatting the value of the time picker.
+     *
+     * @param timeFormattingPattern
+     *            the pattern for formatting value of the time picker
+     */
+    public void setTimePattern(String timeFormattingPattern) {
+        getContent().setTimePattern(timeFormattingPattern);
+    }
+
+    /**
+     * Gets the Pattern for the time picker.
+     *
+     * @return the pattern for formatting value of the time picker
+     */
+    public String getTimePattern() {
+        return getContent().getTimePattern();
+    }
+
+    /**
+     * Sets the patterns for parsing the value of the time picker.
+     *
+     * @param timeParsers
+     *            the array of patterns used for parsing the time picker's
+     *            value
+     */
+    public void setTimeParsers(String... timeParsers) {
+        getContent().setTimeParsers(timeParsers);
+    }
+
+    /**
+     * Gets the parser patterns for the time picker.
+     *
+     * @return an array of the parser patterns
+     */
+    public String[] getTimeParsers() {
+        return getContent().getTimeParsers();
+    }
+}
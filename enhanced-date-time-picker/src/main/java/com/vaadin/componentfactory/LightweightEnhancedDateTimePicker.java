@@ -0,0 +1,440 @@
+package com.vaadin.componentfactory;
+
+import com.vaadin.flow.component.AbstractSinglePropertyField;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.Focusable;
+import com.vaadin.flow.component.HasHelper;
+import com.vaadin.flow.component.HasSize;
+import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.component.HasTheme;
+import com.vaadin.flow.component.HasValidation;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.datetimepicker.DateTimePicker;
+import com.vaadin.flow.component.dependency.JsModule;
+import com.vaadin.flow.component.dependency.Uses;
+import com.vaadin.flow.component.timepicker.StepsUtil;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.i18n.LocaleChangeEvent;
+import com.vaadin.flow.i18n.LocaleChangeObserver;
+import com.vaadin.flow.internal.StateTree;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.FormatStyle;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A lean variant of {@link EnhancedDateTimePicker} for views showing many
+ * pickers. It consists of the {@code vaadin-date-time-picker} element only:
+ * the date and time pickers inside it are the default ones created by the web
+ * component on the client, and are configured through the properties of the
+ * date time picker element and its connector. On the server, each picker has
+ * a single state node and a single value listener.
+ * <p>
+ * The date and time are formatted with the patterns of the
+ * {@link #setLocale(Locale) locale}, or with the ones set with
+ * {@link #setDatePattern(String)} and {@link #setTimePattern(String)}. The
+ * other features of {@link EnhancedDateTimePicker}, like disabled date times,
+ * parsers and the i18n of the date picker, need the server side children and
+ * are not available.
+ */
+@Tag("vaadin-date-time-picker")
+@Uses(DateTimePicker.class)
+@JsModule("./enhancedTimepickerConnectorModule.js")
+@JsModule("./enhancedDateTimePickerConnector.js")
+public class LightweightEnhancedDateTimePicker
+        extends AbstractSinglePropertyField<LightweightEnhancedDateTimePicker, LocalDateTime>
+        implements HasStyle, HasSize, HasTheme, HasValidation,
+        Focusable<LightweightEnhancedDateTimePicker>, HasHelper,
+        LocaleChangeObserver {
+
+    private final static SerializableFunction<String, LocalDateTime> PARSER = s -> {
+        return s == null || s.isEmpty() ? null : LocalDateTime.parse(s);
+    };
+
+    private final static SerializableFunction<LocalDateTime, String> FORMATTER = d -> {
+        return d == null ? "" : d.truncatedTo(ChronoUnit.MILLIS).toString();
+    };
+
+    private LocalDateTime max;
+    private LocalDateTime min;
+    private boolean required;
+    private Locale locale;
+    private String datePattern;
+    private String timePattern;
+    private StateTree.ExecutionRegistration pendingFormatUpdate;
+
+    /**
+     * Default constructor.
+     */
+    public LightweightEnhancedDateTimePicker() {
+        this((LocalDateTime) null);
+    }
+
+    /**
+     * Convenience constructor to create a date time picker with a label.
+     *
+     * @param label
+     *            the label describing the date time picker
+     * @see #setLabel(String)
+     */
+    public LightweightEnhancedDateTimePicker(String label) {
+        this();
+        setLabel(label);
+    }
+
+    /**
+     * Convenience constructor to create a date time picker with a pre-selected
+     * date time.
+     *
+     * @param initialDateTime
+     *            the pre-selected date time in the picker
+     */
+    public LightweightEnhancedDateTimePicker(LocalDateTime initialDateTime) {
+        super("value", null, String.class, PARSER, FORMATTER);
+        if (initialDateTime != null) {
+            setPresentationValue(initialDateTime);
+        }
+
+        // workaround for https://github.com/vaadin/flow/issues/3496
+        setInvalid(false);
+
+        addValueChangeListener(e -> validate());
+    }
+
+    /**
+     * Sets the label for this field.
+     *
+     * @param label
+     *            the String value to set
+     */
+    public void setLabel(String label) {
+        getElement().setProperty("label", label == null ? "" : label);
+    }
+
+    /**
+     * Gets the label of this field.
+     *
+     * @return the {@code label} property of the date time picker
+     */
+    public String getLabel() {
+        return getElement().getProperty("label");
+    }
+
+    /**
+     * Sets a placeholder string for the date field.
+     *
+     * @param placeholder
+     *            the String value to set
+     */
+    public void setDatePlaceholder(String placeholder) {
+        getElement().setProperty("datePlaceholder",
+                placeholder == null ? "" : placeholder);
+    }
+
+    /**
+     * Gets the placeholder string of the date field.
+     *
+     * @return the {@code datePlaceholder} property of the date time picker
+     */
+    public String getDatePlaceholder() {
+        return getElement().getProperty("datePlaceholder");
+    }
+
+    /**
+     * Set a placeholder string for the time field.
+     *
+     * @param placeholder
+     *            the String value to set
+     */
+    public void setTimePlaceholder(String placeholder) {
+        getElement().setProperty("timePlaceholder",
+                placeholder == null ? "" : placeholder);
+    }
+
+    /**
+     * Gets the placeholder string of the time field.
+     *
+     * @return the {@code timePlaceholder} property of the date time picker
+     */
+    public String getTimePlaceholder() {
+        return getElement().getProperty("timePlaceholder");
+    }
+
+    /**
+     * Sets the {@code step} property of the time picker using duration, see
+     * {@link EnhancedDateTimePicker#setStep(Duration)}.
+     *
+     * @param step
+     *            the step to set, not {@code null} and should divide a day or
+     *            an hour evenly
+     */
+    public void setStep(Duration step) {
+        Objects.requireNonNull(step, "Step cannot be null");
+        getElement().setProperty("step",
+                StepsUtil.convertDurationToStepsValue(step));
+    }
+
+    /**
+     * Gets the step of the time picker.
+     *
+     * @return the {@code step} property from the picker, unit seconds
+     */
+    public Duration getStep() {
+        // if step was not set by the user, then assume default value of the
+        // time picker web component
+        if (!getElement().hasProperty("step")) {
+            return StepsUtil.DEFAULT_WEB_COMPONENT_STEP;
+        }
+        double step = getElement().getProperty("step", 0.0);
+        return StepsUtil.convertStepsValueToDuration(step);
+    }
+
+    /**
+     * Sets the minimum date and time in the date time picker. Dates and times
+     * before that will be disabled in the popups.
+     *
+     * @param min
+     *            the minimum date and time that is allowed to be set, or
+     *            <code>null</code> to remove any minimum constraints
+     */
+    public void setMin(LocalDateTime min) {
+        getElement().setProperty("min", FORMATTER.apply(min));
+        this.min = min;
+    }
+
+    /**
+     * Gets the minimum date and time in the date time picker.
+     *
+     * @return the minimum date and time that is allowed to be set, or
+     *         <code>null</code> if there's no minimum
+     */
+    public LocalDateTime getMin() {
+        return min;
+    }
+
+    /**
+     * Sets the maximum date and time in the date time picker. Dates and times
+     * above that will be disabled in the popups.
+     *
+     * @param max
+     *            the maximum date and time that is allowed to be set, or
+     *            <code>null</code> to remove any maximum constraints
+     */
+    public void setMax(LocalDateTime max) {
+        getElement().setProperty("max", FORMATTER.apply(max));
+        this.max = max;
+    }
+
+    /**
+     * Gets the maximum date and time in the date time picker.
+     *
+     * @return the maximum date and time that is allowed to be set, or
+     *         <code>null</code> if there's no maximum
+     */
+    public LocalDateTime getMax() {
+        return max;
+    }
+
+    /**
+     * Sets whether the date time picker is marked as input required.
+     *
+     * @param requiredIndicatorVisible
+     *            the value of the requiredIndicatorVisible to be set
+     */
+    @Override
+    public void setRequiredIndicatorVisible(boolean requiredIndicatorVisible) {
+        super.setRequiredIndicatorVisible(requiredIndicatorVisible);
+        this.required = requiredIndicatorVisible;
+    }
+
+    /**
+     * Sets the error message to display when the input is invalid.
+     */
+    @Override
+    public void setErrorMessage(String errorMessage) {
+        getElement().setProperty("errorMessage",
+                errorMessage == null ? "" : errorMessage);
+    }
+
+    /**
+     * Gets the error message to display when the input is invalid.
+     *
+     * @return the current error message
+     */
+    @Override
+    public String getErrorMessage() {
+        return getElement().getProperty("errorMessage");
+    }
+
+    /**
+     * Sets the validity indication of the date time picker output.
+     */
+    @Override
+    public void setInvalid(boolean invalid) {
+        getElement().setProperty("invalid", invalid);
+    }
+
+    /**
+     * Gets the validity indication of the date time picker output.
+     *
+     * @return the current validity indication.
+     */
+    @Override
+    public boolean isInvalid() {
+        return getElement().getProperty("invalid", false);
+    }
+
+    /**
+     * Performs server-side validation of the current value against the
+     * required, minimum and maximum constraints.
+     */
+    protected void validate() {
+        LocalDateTime value = getValue();
+        setInvalid((required && value == null)
+                || (value != null && max != null && value.isAfter(max))
+                || (value != null && min != null && value.isBefore(min)));
+    }
+
+    /**
+     * Sets the locale whose formats are used for the date and the time. By
+     * default, the picker follows the {@link UI#getLocale() UI locale}.
+     *
+     * @param locale
+     *            the locale to set, not {@code null}
+     */
+    public void setLocale(Locale locale) {
+        Objects.requireNonNull(locale, "Locale must not be null.");
+        this.locale = locale;
+        requestFormatUpdate();
+    }
+
+    /**
+     * Gets the locale of the picker, the UI locale if none has been set.
+     *
+     * @return the locale used for this picker
+     */
+    @Override
+    public Locale getLocale() {
+        return locale != null ? locale : super.getLocale();
+    }
+
+    @Override
+    public void localeChange(LocaleChangeEvent event) {
+        if (locale == null) {
+            requestFormatUpdate();
+        }
+    }
+
+    /**
+     * Sets the date-fns pattern for formatting and parsing the date, eg.
+     * {@code dd.MM.yyyy}.
+     *
+     * @param datePattern
+     *            the pattern, or {@code null} for the short date format of
+     *            the locale
+     */
+    public void setDatePattern(String datePattern) {
+        this.datePattern = datePattern;
+        requestFormatUpdate();
+    }
+
+    /**
+     * Gets the pattern for the date set with {@link #setDatePattern(String)}.
+     *
+     * @return the pattern, or {@code null} if the locale format is used
+     */
+    public String getDatePattern() {
+        return datePattern;
+    }
+
+    /**
+     * Sets the date-fns pattern for formatting the time, eg. {@code HH:mm}.
+     *
+     * @param timePattern
+     *            the pattern, or {@code null} for the time format of the
+     *            locale
+     */
+    public void setTimePattern(String timePattern) {
+        this.timePattern = timePattern;
+        requestFormatUpdate();
+    }
+
+    /**
+     * Gets the pattern for the time set with {@link #setTimePattern(String)}.
+     *
+     * @return the pattern, or {@code null} if the locale format is used
+     */
+    public String getTimePattern() {
+        return timePattern;
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        attachEvent.getUI().beforeClientResponse(this, context -> {
+            getElement().executeJs(
+                    "window.Vaadin.Flow.enhancedDateTimePickerConnector.initLightweight(this);");
+        });
+        EnhancedDateTimePickerFieldValidationUtil.disableClientValidation(this);
+        requestFormatUpdate();
+    }
+
+    private void requestFormatUpdate() {
+        if (pendingFormatUpdate != null) {
+            return;
+        }
+        getElement().getNode().runWhenAttached(ui -> {
+            if (pendingFormatUpdate == null) {
+                pendingFormatUpdate = ui.beforeClientResponse(this, context -> {
+                    pendingFormatUpdate = null;
+                    Locale appliedLocale = getLocale();
+                    // a locale change on attach is handled before onAttach,
+                    // so the connector may not be initialized yet
+                    getElement().executeJs(
+                            "window.Vaadin.Flow.enhancedDateTimePickerConnector.initLightweight(this);"
+                                    + "this.$lightweightConnector.setFormat($0, $1, $2, $3);",
+                            EnhancedTimePicker.toLanguageTag(appliedLocale),
+                            UILocaleCoordinator.get(ui)
+                                    .takeMetadata(appliedLocale),
+                            datePattern != null ? datePattern
+                                    : getShortDatePattern(appliedLocale),
+                            timePattern);
+                });
+            }
+        });
+    }
+
+    // the JDK and date-fns patterns agree on the letters of the short date
+    // formats, only two digit years are widened to avoid ambiguous input
+    static String getShortDatePattern(Locale locale) {
+        String pattern = DateTimeFormatterBuilder.getLocalizedDateTimePattern(
+                FormatStyle.SHORT, null, IsoChronology.INSTANCE, locale);
+        return pattern.replaceAll("(?<!y)yy(?!y)", "yyyy");
+    }
+}
@@ -0,0 +1,173 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * A date time relative to the current time, eg.
+ * {@code Relative.now().plusMinutes(15)}, to be used as the minimum or
+ * maximum of a picker. The current time is truncated to the
+ * {@link #truncatedTo(ChronoUnit) unit} of the relative date time, minutes by
+ * default, so that the resolved date time only changes once per unit.
+ * <p>
+ * Pickers with relative bounds are updated by the
+ * {@link RelativeBoundsScheduler} of their UI.
+ */
+public final class Relative implements Serializable {
+
+    private final Duration offset;
+    private final ChronoUnit unit;
+
+    private Relative(Duration offset, ChronoUnit unit) {
+        this.offset = offset;
+        this.unit = unit;
+    }
+
+    /**
+     * Gets the current time, truncated to minutes.
+     *
+     * @return the relative date time, not {@code null}
+     */
+    public static Relative now() {
+        return new Relative(Duration.ZERO, ChronoUnit.MINUTES);
+    }
+
+    /**
+     * Returns a copy with the given duration added.
+     *
+     * @param duration
+     *            the duration to add, may be negative, not {@code null}
+     * @return the relative date time, not {@code null}
+     */
+    public Relative plus(Duration duration) {
+        Objects.requireNonNull(duration, "Duration cannot be null");
+        return new Relative(offset.plus(duration), unit);
+    }
+
+    /**
+     * Returns a copy with the given duration subtracted.
+     *
+     * @param duration
+     *            the duration to subtract, may be negative, not {@code null}
+     * @return the relative date time, not {@code null}
+     */
+    public Relative minus(Duration duration) {
+        Objects.requireNonNull(duration, "Duration cannot be null");
+        return new Relative(offset.minus(duration), unit);
+    }
+
+    /**
+     * Returns a copy with the given number of minutes added.
+     *
+     * @param minutes
+     *            the minutes to add, may be negative
+     * @return the relative date time, not {@code null}
+     */
+    public Relative plusMinutes(long minutes) {
+        return plus(Duration.ofMinutes(minutes));
+    }
+
+    /**
+     * Returns a copy with the given number of hours added.
+     *
+     * @param hours
+     *            the hours to add, may be negative
+     * @return the relative date time, not {@code null}
+     */
+    public Relative plusHours(long hours) {
+        return plus(Duration.ofHours(hours));
+    }
+
+    /**
+     * Returns a copy with the given number of days of 24 hours added.
+     *
+     * @param days
+     *            the days to add, may be negative
+     * @return the relative date time, not {@code null}
+     */
+    public Relative plusDays(long days) {
+        return plus(Duration.ofDays(days));
+    }
+
+    /**
+     * Returns a copy truncating the current time to the given unit before
+     * adding the offset.
+     *
+     * @param unit
+     *            the unit, at most {@link ChronoUnit#DAYS}, not {@code null}
+     * @return the relative date time, not {@code null}
+     */
+    public Relative truncatedTo(ChronoUnit unit) {
+        Objects.requireNonNull(unit, "Unit cannot be null");
+        return new Relative(offset, unit);
+    }
+
+    /**
+     * Resolves the relative date time at the given current time.
+     *
+     * @param now
+     *            the current time, not {@code null}
+     * @return the date time, not {@code null}
+     */
+    public LocalDateTime resolve(LocalDateTime now) {
+        return now.truncatedTo(unit).plus(offset);
+    }
+
+    /**
+     * Resolves the relative date time as a time of the day of the given
+     * current time. Date times of later days are clamped to the end of the
+     * day and those of earlier days to its start.
+     */
+    LocalTime resolveTimeOfDay(LocalDateTime now) {
+        LocalDateTime resolved = resolve(now);
+        int days = resolved.toLocalDate().compareTo(now.toLocalDate());
+        return days > 0 ? LocalTime.MAX.truncatedTo(ChronoUnit.MILLIS)
+                : days < 0 ? LocalTime.MIDNIGHT : resolved.toLocalTime();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Relative)) {
+            return false;
+        }
+        Relative other = (Relative) obj;
+        return offset.equals(other.offset) && unit == other.unit;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(offset, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "now truncated to " + unit + " plus " + offset;
+    }
+}
@@ -0,0 +1,248 @@
+package com.vaadin.componentfactory;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.communication.PushMode;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Re-evaluates the {@link Relative relative} minimums and maximums of the
+ * pickers of an UI, eg. a minimum of {@code Relative.now()} for not allowing
+ * times in the past.
+ * <p>
+ * One scheduler is stored per UI, see {@link #get(UI)}. While the UI has
+ * attached pickers with relative bounds, the scheduler resolves them once per
+ * {@link #setTick(Duration) tick} in one
+ * {@link UI#access(com.vaadin.flow.server.Command)}, and only the pickers
+ * whose bounds changed are updated. Server push or polling is needed for the
+ * changes to reach the browser right away.
+ */
+public final class RelativeBoundsScheduler implements Serializable {
+
+    /**
+     * The default time between the evaluations of the relative bounds.
+     */
+    public static final Duration DEFAULT_TICK = Duration.ofSeconds(15);
+
+    /**
+     * Updates the bounds of a picker, returning whether they changed.
+     */
+    @FunctionalInterface
+    interface BoundsUpdate extends Serializable {
+        boolean update(LocalDateTime now);
+    }
+
+    private final UI ui;
+    private final Map<Component, BoundsUpdate> pickers = new LinkedHashMap<>();
+    private Duration tick = DEFAULT_TICK;
+    private Clock clock = Clock.systemDefaultZone();
+    private transient ScheduledFuture<?> future;
+
+    private RelativeBoundsScheduler(UI ui) {
+        this.ui = ui;
+    }
+
+    /**
+     * Gets the scheduler of the given UI, creating it if needed.
+     *
+     * @param ui
+     *            the UI, not {@code null}
+     * @return the scheduler of the UI, not {@code null}
+     */
+    public static RelativeBoundsScheduler get(UI ui) {
+        Objects.requireNonNull(ui, "UI cannot be null");
+        RelativeBoundsScheduler scheduler = ComponentUtil.getData(ui,
+                RelativeBoundsScheduler.class);
+        if (scheduler == null) {
+            scheduler = new RelativeBoundsScheduler(ui);
+            ComponentUtil.setData(ui, RelativeBoundsScheduler.class, scheduler);
+        }
+        return scheduler;
+    }
+
+    /**
+     * Sets the time between the evaluations of the relative bounds. By
+     * default, this is {@link #DEFAULT_TICK}.
+     *
+     * @param tick
+     *            the time between evaluations, positive, not {@code null}
+     */
+    public void setTick(Duration tick) {
+        Objects.requireNonNull(tick, "Tick cannot be null");
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tick = tick;
+        if (future != null) {
+            stop();
+            start();
+        }
+    }
+
+    /**
+     * Gets the time between the evaluations of the relative bounds.
+     *
+     * @return the time between evaluations, not {@code null}
+     */
+    public Duration getTick() {
+        return tick;
+    }
+
+    /**
+     * Sets the clock giving the current time, eg. for resolving relative
+     * bounds in the time zone of the user. By default, this is the system
+     * clock in the default time zone of the server.
+     *
+     * @param clock
+     *            the clock, not {@code null}
+     */
+    public void setClock(Clock clock) {
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+    }
+
+    /**
+     * Gets the current time of the {@link #setClock(Clock) clock}.
+     *
+     * @return the current time, not {@code null}
+     */
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    /**
+     * Gets the current time for the given picker from the clock of the
+     * scheduler of its UI. While the picker is not attached, the scheduler of
+     * the current UI is used, and the system clock if there is none.
+     */
+    static LocalDateTime now(Component picker) {
+        UI ui = picker.getUI().orElseGet(UI::getCurrent);
+        return ui != null ? get(ui).now() : LocalDateTime.now();
+    }
+
+    /**
+     * Registers the bounds update of a picker with relative bounds in the
+     * scheduler of its UI, and unregisters a picker without them. The bounds
+     * of a picker that is not attached are resolved once, it is registered
+     * when it gets attached.
+     */
+    static void updateRegistration(Component picker, boolean relativeBounds,
+            BoundsUpdate update) {
+        Optional<UI> ui = picker.getUI();
+        if (!relativeBounds) {
+            ui.ifPresent(u -> get(u).unregister(picker));
+        } else if (ui.isPresent()) {
+            get(ui.get()).register(picker, update);
+        } else {
+            update.update(now(picker));
+        }
+    }
+
+    /**
+     * Resolves a relative bound and applies it if it differs from the current
+     * bound, returning whether it was applied. Only the bounds that changed
+     * are sent to the client again.
+     */
+    static <T> boolean updateBound(Relative relative,
+            Function<Relative, T> resolve, T current, Consumer<T> apply) {
+        if (relative == null) {
+            return false;
+        }
+        T resolved = resolve.apply(relative);
+        if (resolved.equals(current)) {
+            return false;
+        }
+        apply.accept(resolved);
+        return true;
+    }
+
+    /**
+     * Adds or replaces the bounds update of the given picker and runs it
+     * right away.
+     */
+    void register(Component picker, BoundsUpdate update) {
+        pickers.put(picker, update);
+        update.update(now());
+        if (future == null) {
+            start();
+        }
+    }
+
+    /**
+     * Removes the bounds update of the given picker, if any.
+     */
+    void unregister(Component picker) {
+        if (pickers.remove(picker) != null && pickers.isEmpty()) {
+            stop();
+        }
+    }
+
+    private void start() {
+        long millis = tick.toMillis();
+        future = DateTimePickerBatchUpdater.getScheduler().scheduleAtFixedRate(
+                this::tick, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    private void stop() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    private void tick() {
+        try {
+            ui.access(this::update);
+        } catch (UIDetachedException e) {
+            // Nothing to update anymore
+            stop();
+        }
+    }
+
+    private void update() {
+        LocalDateTime now = now();
+        boolean changed = false;
+        // an update may detach pickers through value change listeners
+        for (BoundsUpdate update : new ArrayList<>(pickers.values())) {
+            changed |= update.update(now);
+        }
+        if (changed && ui.getPushConfiguration()
+                .getPushMode() == PushMode.MANUAL) {
+            ui.push();
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.vaadin.componentfactory;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.text.DateFormatSymbols;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses relative date time expressions typed by the user, like
+ * {@code now}, {@code +2h}, {@code tomorrow 9}, {@code next mon 14:30} or
+ * {@code fri 5pm +1w}.
+ * <p>
+ * An expression consists of
+ * <ul>
+ * <li>either {@code now}, or a day ({@code today}, {@code tomorrow},
+ * {@code yesterday} or a weekday, optionally preceded by {@code next} or
+ * {@code last}) and/or a time ({@code 9}, {@code 14:30}, {@code 9pm}),</li>
+ * <li>followed by any number of offsets like {@code +2h}, {@code -30m},
+ * {@code +1d} or {@code +1w}.</li>
+ * </ul>
+ * It must contain {@code now}, a day or an offset, a time alone is left to
+ * the parsers of the time picker. A day without a time means its start, a
+ * time without a day means today. A weekday alone is the next such day,
+ * today included, with {@code next} today is excluded and with {@code last}
+ * it is the previous such day. The current time is truncated to minutes.
+ * <p>
+ * Words can be abbreviated as long as the abbreviation is unambiguous, eg.
+ * {@code tom} or {@code wed}. Besides English, the weekday names and AM/PM
+ * strings of the locale are understood, as well as its digits. The
+ * connector of the date time picker implements the same grammar for
+ * instant feedback, the vocabulary being sent with {@link #toJson()}.
+ */
+public final class RelativeInputParser implements Serializable {
+
+    /**
+     * Version of the format of {@link #toJson()}, checked by the connector.
+     */
+    static final int VERSION = 1;
+
+    private static final Map<Locale, RelativeInputParser> CACHE = new ConcurrentHashMap<>();
+
+    private static final String AMBIGUOUS = "";
+
+    private final Map<String, String> words = new LinkedHashMap<>();
+    private final TrieNode trie = new TrieNode();
+    private final Locale locale;
+    private final char zeroDigit;
+
+    private RelativeInputParser(Locale locale) {
+        this.locale = locale;
+        zeroDigit = TimeFormatMetadata.get(locale).getZeroDigit();
+        addWords("now", "now");
+        addWords("today", "today");
+        addWords("tomorrow", "tomorrow", "tmrw");
+        addWords("yesterday", "yesterday");
+        addWords("next", "next");
+        addWords("last", "last", "prev", "previous");
+        addWords("m", "m", "min", "mins", "minute", "minutes");
+        addWords("h", "h", "hr", "hrs", "hour", "hours");
+        addWords("d", "d", "day", "days");
+        addWords("w", "w", "wk", "week", "weeks");
+        addSymbols(DateFormatSymbols.getInstance(Locale.ENGLISH));
+        // the words of the locale win over the English ones
+        addSymbols(DateFormatSymbols.getInstance(locale));
+        for (Map.Entry<String, String> word : words.entrySet()) {
+            trie.add(word.getKey(), 0, word.getValue());
+        }
+    }
+
+    /**
+     * Gets the parser of the given locale. Only the language and country of
+     * the locale are taken into account.
+     *
+     * @param locale
+     *            the locale, not {@code null}
+     * @return the parser, not {@code null}
+     */
+    public static RelativeInputParser of(Locale locale) {
+        return CACHE.computeIfAbsent(
+                new Locale(locale.getLanguage(), locale.getCountry()),
+                RelativeInputParser::new);
+    }
+
+    private void addWords(String token, String... forms) {
+        for (String form : forms) {
+            String word = normalizeWord(form);
+            if (!word.isEmpty()) {
+                words.put(word, token);
+            }
+        }
+    }
+
+    private void addSymbols(DateFormatSymbols symbols) {
+        String[] weekdays = symbols.getWeekdays();
+        String[] shortWeekdays = symbols.getShortWeekdays();
+        // Calendar.SUNDAY is 1, ISO day of week has Monday as 1
+        for (int day = 1; day <= 7; day++) {
+            String token = "wd" + ((day + 5) % 7 + 1);
+            addWords(token, weekdays[day], shortWeekdays[day]);
+        }
+        addWords("am", symbols.getAmPmStrings()[0]);
+        addWords("pm", symbols.getAmPmStrings()[1]);
+    }
+
+    // words are matched lower case, without dots and spaces, eg. "a. m."
+    private String normalizeWord(String word) {
+        return word.toLowerCase(locale).replaceAll("[.\\s]", "");
+    }
+
+    /**
+     * Parses the given text.
+     *
+     * @param text
+     *            the text typed by the user, not {@code null}
+     * @param now
+     *            the current time, not {@code null}
+     * @return the date time, or an empty optional if the text is not a
+     *         relative expression
+     */
+    public Optional<LocalDateTime> parse(String text, LocalDateTime now) {
+        List<Object> tokens = tokenize(text);
+        return tokens == null ? Optional.empty()
+                : Optional.ofNullable(evaluate(tokens,
+                        now.truncatedTo(ChronoUnit.MINUTES)));
+    }
+
+    /**
+     * Splits the text into numbers ({@code Integer}), times of day
+     * ({@code LocalTime}), signs ({@code Character}) and the tokens of the
+     * words ({@code String}), or returns null if there are unknown words.
+     */
+    private List<Object> tokenize(String text) {
+        String lowerCase = text.toLowerCase(locale);
+        List<Object> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < lowerCase.length()) {
+            char c = lowerCase.charAt(i);
+            if (digitValue(c) >= 0) {
+                int end = i;
+                int number = 0;
+                while (end < lowerCase.length()
+                        && digitValue(lowerCase.charAt(end)) >= 0) {
+                    number = number * 10 + digitValue(lowerCase.charAt(end));
+                    end++;
+                }
+                if (end - i > 4) {
+                    return null;
+                }
+                if (end + 2 < lowerCase.length()
+                        && lowerCase.charAt(end) == ':'
+                        && digitValue(lowerCase.charAt(end + 1)) >= 0
+                        && digitValue(lowerCase.charAt(end + 2)) >= 0) {
+                    int minutes = digitValue(lowerCase.charAt(end + 1)) * 10
+                            + digitValue(lowerCase.charAt(end + 2));
+                    if (number > 23 || minutes > 59) {
+                        return null;
+                    }
+                    tokens.add(LocalTime.of(number, minutes));
+                    end += 3;
+                } else {
+                    tokens.add(number);
+                }
+                i = end;
+            } else if (c == '+' || c == '-') {
+                tokens.add(c);
+                i++;
+            } else if (Character.isLetter(c)) {
+                int end = i;
+                StringBuilder word = new StringBuilder();
+                while (end < lowerCase.length()
+                        && (Character.isLetter(lowerCase.charAt(end))
+                                || lowerCase.charAt(end) == '.')) {
+                    if (lowerCase.charAt(end) != '.') {
+                        word.append(lowerCase.charAt(end));
+                    }
+                    end++;
+                }
+                String token = trie.find(word, 0);
+                if (token == null || token.equals(AMBIGUOUS)) {
+                    return null;
+                }
+                tokens.add(token);
+                i = end;
+            } else if (Character.isWhitespace(c) || c == ',') {
+                i++;
+            } else {
+                return null;
+            }
+        }
+        return tokens;
+    }
+
+    private int digitValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        return c >= zeroDigit && c <= zeroDigit + 9 ? c - zeroDigit : -1;
+    }
+
+    private static LocalDateTime evaluate(List<Object> tokens,
+            LocalDateTime now) {
+        int pos = 0;
+        boolean relative = false;
+        LocalDate date = null;
+        LocalTime time = null;
+        LocalDateTime result;
+
+        if (pos < tokens.size() && "now".equals(tokens.get(pos))) {
+            relative = true;
+            result = now;
+            pos++;
+        } else {
+            // the day
+            Object token = pos < tokens.size() ? tokens.get(pos) : null;
+            if ("today".equals(token)) {
+                date = now.toLocalDate();
+                pos++;
+            } else if ("tomorrow".equals(token)) {
+                date = now.toLocalDate().plusDays(1);
+                pos++;
+            } else if ("yesterday".equals(token)) {
+                date = now.toLocalDate().minusDays(1);
+                pos++;
+            } else if ("next".equals(token) || "last".equals(token)
+                    || isWeekday(token)) {
+                if (!isWeekday(token)) {
+                    pos++;
+                }
+                Object weekday = pos < tokens.size() ? tokens.get(pos) : null;
+                if (!isWeekday(weekday)) {
+                    return null;
+                }
+                DayOfWeek day = DayOfWeek
+                        .of(((String) weekday).charAt(2) - '0');
+                date = now.toLocalDate()
+                        .with("next".equals(token) ? TemporalAdjusters.next(day)
+                                : "last".equals(token)
+                                        ? TemporalAdjusters.previous(day)
+                                        : TemporalAdjusters.nextOrSame(day));
+                pos++;
+            }
+            relative = date != null;
+
+            // the time
+            token = pos < tokens.size() ? tokens.get(pos) : null;
+            if (token instanceof LocalTime || token instanceof Integer) {
+                int hours = token instanceof LocalTime
+                        ? ((LocalTime) token).getHour()
+                        : (Integer) token;
+                int minutes = token instanceof LocalTime
+                        ? ((LocalTime) token).getMinute()
+                        : 0;
+                pos++;
+                Object period = pos < tokens.size() ? tokens.get(pos) : null;
+                if ("am".equals(period) || "pm".equals(period)) {
+                    if (hours < 1 || hours > 12) {
+                        return null;
+                    }
+                    hours = hours % 12 + ("pm".equals(period) ? 12 : 0);
+                    pos++;
+                }
+                if (hours > 23) {
+                    return null;
+                }
+                time = LocalTime.of(hours, minutes);
+            }
+            result = (date != null ? date : now.toLocalDate())
+                    .atTime(time != null ? time : LocalTime.MIDNIGHT);
+            if (date == null && time == null) {
+                // only offsets, relative to now
+                result = now;
+            }
+        }
+
+        // the offsets
+        while (pos < tokens.size()) {
+            if (pos + 2 >= tokens.size()
+                    || !(tokens.get(pos) instanceof Character)
+                    || !(tokens.get(pos + 1) instanceof Integer)
+                    || !(tokens.get(pos + 2) instanceof String)) {
+                return null;
+            }
+            long amount = (Integer) tokens.get(pos + 1);
+            if ((Character) tokens.get(pos) == '-') {
+                amount = -amount;
+            }
+            String unit = (String) tokens.get(pos + 2);
+            if ("m".equals(unit)) {
+                result = result.plusMinutes(amount);
+            } else if ("h".equals(unit)) {
+                result = result.plusHours(amount);
+            } else if ("d".equals(unit)) {
+                result = result.plusDays(amount);
+            } else if ("w".equals(unit)) {
+                result = result.plusWeeks(amount);
+            } else {
+                return null;
+            }
+            relative = true;
+            pos += 3;
+        }
+        return relative ? result : null;
+    }
+
+    private static boolean isWeekday(Object token) {
+        return token instanceof String && ((String) token).startsWith("wd");
+    }
+
+    /**
+     * Encodes the vocabulary for the connector: the words, mapped to their
+     * tokens, and the zero digit of the locale.
+     */
+    JsonObject toJson() {
+        JsonObject json = Json.createObject();
+        json.put("version", VERSION);
+        JsonObject wordsJson = Json.createObject();
+        words.forEach(wordsJson::put);
+        json.put("words", wordsJson);
+        json.put("zeroDigit", String.valueOf(zeroDigit));
+        return json;
+    }
+
+    /**
+     * A node of the trie of the words. Besides the token of the word ending at
+     * the node, it keeps the token shared by all the words below it, for
+     * matching unambiguous abbreviations.
+     */
+    private static class TrieNode implements Serializable {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private String token;
+        private String prefixToken;
+
+        private void add(String word, int index, String wordToken) {
+            prefixToken = prefixToken == null || prefixToken.equals(wordToken)
+                    ? wordToken
+                    : AMBIGUOUS;
+            if (index == word.length()) {
+                token = wordToken;
+                return;
+            }
+            children.computeIfAbsent(word.charAt(index), c -> new TrieNode())
+                    .add(word, index + 1, wordToken);
+        }
+
+        private String find(CharSequence word, int index) {
+            if (index == word.length()) {
+                return token != null ? token : prefixToken;
+            }
+            TrieNode child = children.get(word.charAt(index));
+            return child == null ? null : child.find(word, index + 1);
+        }
+    }
+}
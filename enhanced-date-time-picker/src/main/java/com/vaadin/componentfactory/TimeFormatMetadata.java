@@ -0,0 +1,152 @@
+package com.vaadin.componentfactory;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.text.DateFormatSymbols;
+import java.text.DecimalFormatSymbols;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time format of a locale, as described by the locale data of the JVM, for
+ * the time picker connector to format and parse times without inferring the
+ * format from {@code Date.toLocaleTimeString()} in the browser.
+ * <p>
+ * The metadata is computed once per locale and JVM. Only the language and
+ * country of the locale are taken into account, like on the client.
+ */
+final class TimeFormatMetadata {
+
+    /**
+     * Version of the format of {@link #toJson()}, checked by the connector.
+     */
+    static final int VERSION = 1;
+
+    private static final Map<Locale, TimeFormatMetadata> CACHE = new ConcurrentHashMap<>();
+
+    private final List<String> parts;
+    private final boolean hour12;
+    private final String am;
+    private final String pm;
+    private final char zeroDigit;
+
+    private TimeFormatMetadata(Locale locale) {
+        String pattern = DateTimeFormatterBuilder.getLocalizedDateTimePattern(
+                null, FormatStyle.MEDIUM, IsoChronology.INSTANCE, locale);
+        parts = Collections.unmodifiableList(tokenize(pattern));
+        hour12 = parts.contains("h") || parts.contains("hh")
+                || parts.contains("K") || parts.contains("KK");
+        String[] amPmStrings = DateFormatSymbols.getInstance(locale)
+                .getAmPmStrings();
+        am = amPmStrings[0];
+        pm = amPmStrings[1];
+        zeroDigit = DecimalFormatSymbols.getInstance(locale).getZeroDigit();
+    }
+
+    /**
+     * Gets the metadata of the given locale.
+     */
+    static TimeFormatMetadata get(Locale locale) {
+        return CACHE.computeIfAbsent(
+                new Locale(locale.getLanguage(), locale.getCountry()),
+                TimeFormatMetadata::new);
+    }
+
+    /**
+     * Gets the zero digit of the locale, eg. for parsing digits typed by the
+     * user.
+     */
+    char getZeroDigit() {
+        return zeroDigit;
+    }
+
+    /**
+     * Splits the pattern into runs of the same field letter and literals, the
+     * latter prefixed with a single quote, eg. {@code h:mm:ss a} into
+     * {@code h ': mm ': ss ' a}.
+     */
+    private static List<String> tokenize(String pattern) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                int end = pattern.indexOf('\'', i + 1);
+                if (end < 0) {
+                    end = pattern.length();
+                }
+                // two single quotes stand for one
+                literal.append(end == i + 1 ? "'" : pattern.substring(i + 1, end));
+                i = end + 1;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                if (literal.length() > 0) {
+                    tokens.add("'" + literal);
+                    literal.setLength(0);
+                }
+                int end = i + 1;
+                while (end < pattern.length() && pattern.charAt(end) == c) {
+                    end++;
+                }
+                // day periods are shown like AM/PM
+                tokens.add(c == 'B' ? "a" : pattern.substring(i, end));
+                i = end;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        if (literal.length() > 0) {
+            tokens.add("'" + literal);
+        }
+        return tokens;
+    }
+
+    /**
+     * Encodes the metadata for the connector. The parts are those of the
+     * medium time format, including seconds.
+     */
+    JsonObject toJson() {
+        JsonObject json = Json.createObject();
+        json.put("version", VERSION);
+        JsonArray partsJson = Json.createArray();
+        for (String part : parts) {
+            partsJson.set(partsJson.length(), part);
+        }
+        json.put("parts", partsJson);
+        json.put("hour12", hour12);
+        json.put("am", am);
+        json.put("pm", pm);
+        json.put("zeroDigit", String.valueOf(zeroDigit));
+        return json;
+    }
+}
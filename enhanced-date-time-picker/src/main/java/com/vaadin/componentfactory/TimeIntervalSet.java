@@ -0,0 +1,266 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+
+import java.io.Serializable;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable set of time intervals within a day.
+ * <p>
+ * The intervals are stored as a sorted array of non-overlapping
+ * {@code [start, end)} pairs in milliseconds of the day, which is also the
+ * encoding sent to the client. Looking up a time is a binary search over that
+ * array, so a set can hold hundreds of intervals and still be checked on every
+ * value change. Instances can be shared freely between pickers.
+ */
+public final class TimeIntervalSet implements Serializable {
+
+    static final int MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+
+    /**
+     * A set without any intervals.
+     */
+    public static final TimeIntervalSet EMPTY = new TimeIntervalSet(new int[0]);
+
+    /**
+     * A set covering the whole day.
+     */
+    public static final TimeIntervalSet WHOLE_DAY = new TimeIntervalSet(
+            new int[] { 0, MILLIS_PER_DAY });
+
+    private final int[] bounds;
+
+    private TimeIntervalSet(int[] bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * Creates a set with a single interval.
+     *
+     * @param start
+     *            the start of the interval, inclusive
+     * @param end
+     *            the end of the interval, exclusive. {@link LocalTime#MIDNIGHT}
+     *            stands for the end of the day
+     * @return the interval set
+     * @see Builder#add(LocalTime, LocalTime)
+     */
+    public static TimeIntervalSet of(LocalTime start, LocalTime end) {
+        return builder().add(start, end).build();
+    }
+
+    /**
+     * Creates a new builder for collecting intervals.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks whether the given time is inside one of the intervals.
+     *
+     * @param time
+     *            the time to check, not {@code null}
+     * @return {@code true} if the time is in the set
+     */
+    public boolean contains(LocalTime time) {
+        Objects.requireNonNull(time, "Time cannot be null");
+        return contains(toMillisOfDay(time));
+    }
+
+    boolean contains(int millisOfDay) {
+        // binary search for the last interval starting at or before the time
+        int low = 0;
+        int high = bounds.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (bounds[2 * mid] <= millisOfDay) {
+                if (millisOfDay < bounds[2 * mid + 1]) {
+                    return true;
+                }
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the set has no intervals.
+     *
+     * @return {@code true} if the set is empty
+     */
+    public boolean isEmpty() {
+        return bounds.length == 0;
+    }
+
+    /**
+     * Gets the number of disjoint intervals in the set.
+     *
+     * @return the number of intervals
+     */
+    public int getIntervalCount() {
+        return bounds.length / 2;
+    }
+
+    /**
+     * Encodes the {@code [start, end)} pairs as a flat JSON array for the
+     * client.
+     */
+    JsonArray toJson() {
+        JsonArray array = Json.createArray();
+        for (int i = 0; i < bounds.length; i++) {
+            array.set(i, bounds[i]);
+        }
+        return array;
+    }
+
+    static int toMillisOfDay(LocalTime time) {
+        return (int) (time.toNanoOfDay() / 1_000_000);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || (obj instanceof TimeIntervalSet
+                && Arrays.equals(bounds, ((TimeIntervalSet) obj).bounds));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bounds);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("TimeIntervalSet[");
+        for (int i = 0; i < bounds.length; i += 2) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(LocalTime.ofNanoOfDay(bounds[i] * 1_000_000L))
+                    .append('-')
+                    .append(bounds[i + 1] == MILLIS_PER_DAY ? "24:00"
+                            : LocalTime.ofNanoOfDay(bounds[i + 1] * 1_000_000L));
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Collects intervals and compiles them into a {@link TimeIntervalSet}.
+     * Overlapping and adjacent intervals are merged.
+     */
+    public static final class Builder {
+
+        // each interval packed into one long as (start << 32 | end), so that
+        // sorting the array sorts the intervals by start
+        private long[] intervals = new long[16];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an interval. The end is exclusive and {@link LocalTime#MIDNIGHT}
+         * as end stands for the end of the day. An interval whose end is
+         * before its start wraps over midnight.
+         *
+         * @param start
+         *            the start of the interval, inclusive, not {@code null}
+         * @param end
+         *            the end of the interval, exclusive, not {@code null}
+         * @return this builder
+         */
+        public Builder add(LocalTime start, LocalTime end) {
+            Objects.requireNonNull(start, "Start cannot be null");
+            Objects.requireNonNull(end, "End cannot be null");
+            int startMillis = toMillisOfDay(start);
+            int endMillis = end.equals(LocalTime.MIDNIGHT) ? MILLIS_PER_DAY
+                    : toMillisOfDay(end);
+            if (endMillis < startMillis) {
+                add(startMillis, MILLIS_PER_DAY);
+                add(0, endMillis);
+            } else {
+                add(startMillis, endMillis);
+            }
+            return this;
+        }
+
+        /**
+         * Adds all intervals of the given set.
+         *
+         * @param set
+         *            the set to add, not {@code null}
+         * @return this builder
+         */
+        public Builder addAll(TimeIntervalSet set) {
+            Objects.requireNonNull(set, "Set cannot be null");
+            for (int i = 0; i < set.bounds.length; i += 2) {
+                add(set.bounds[i], set.bounds[i + 1]);
+            }
+            return this;
+        }
+
+        private void add(int startMillis, int endMillis) {
+            if (startMillis >= endMillis) {
+                return;
+            }
+            if (size == intervals.length) {
+                intervals = Arrays.copyOf(intervals, size * 2);
+            }
+            intervals[size++] = ((long) startMillis << 32) | endMillis;
+        }
+
+        /**
+         * Compiles the collected intervals.
+         *
+         * @return the immutable interval set
+         */
+        public TimeIntervalSet build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            long[] sorted = Arrays.copyOf(intervals, size);
+            Arrays.sort(sorted);
+            int[] bounds = new int[size * 2];
+            int count = 0;
+            for (long interval : sorted) {
+                int start = (int) (interval >>> 32);
+                int end = (int) interval;
+                if (count > 0 && start <= bounds[count - 1]) {
+                    bounds[count - 1] = Math.max(bounds[count - 1], end);
+                } else {
+                    bounds[count++] = start;
+                    bounds[count++] = end;
+                }
+            }
+            return new TimeIntervalSet(Arrays.copyOf(bounds, count));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.vaadin.componentfactory;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateTree;
+
+import elemental.json.Json;
+import elemental.json.JsonValue;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Collects the time pickers and the date pickers of the date time pickers of
+ * an UI that follow the {@link UI#getLocale() UI locale} and sends their
+ * locale to the client in one call, instead of one call per picker. The client
+ * then reformats all of them in one animation frame.
+ * <p>
+ * One coordinator is stored per UI, see {@link #get(UI)}. It also keeps track
+ * of the locales whose {@link TimeFormatMetadata} and
+ * {@link RelativeInputParser} vocabulary have been sent to the client of the
+ * UI, so that each of them is sent only once.
+ */
+final class UILocaleCoordinator implements Serializable {
+
+    private final UI ui;
+    private final Set<EnhancedTimePicker> pending = new LinkedHashSet<>();
+    private final Set<EnhancedDatePicker> pendingDatePickers = new LinkedHashSet<>();
+    private final Set<String> sentMetadata = new HashSet<>();
+    private final Set<String> sentRelativeInputVocabularies = new HashSet<>();
+    private StateTree.ExecutionRegistration pendingUpdate;
+
+    private UILocaleCoordinator(UI ui) {
+        this.ui = ui;
+    }
+
+    /**
+     * Gets the coordinator of the given UI, creating it if needed.
+     */
+    static UILocaleCoordinator get(UI ui) {
+        UILocaleCoordinator coordinator = ComponentUtil.getData(ui,
+                UILocaleCoordinator.class);
+        if (coordinator == null) {
+            coordinator = new UILocaleCoordinator(ui);
+            ComponentUtil.setData(ui, UILocaleCoordinator.class, coordinator);
+        }
+        return coordinator;
+    }
+
+    /**
+     * Schedules sending the UI locale to the given picker with the next
+     * response, together with all the other pickers scheduled until then.
+     */
+    void schedule(EnhancedTimePicker picker) {
+        pending.add(picker);
+        scheduleUpdate();
+    }
+
+    /**
+     * Schedules sending the UI locale to the given date picker of a date time
+     * picker with the next response, like {@link #schedule(EnhancedTimePicker)}.
+     */
+    void schedule(EnhancedDatePicker picker) {
+        pendingDatePickers.add(picker);
+        scheduleUpdate();
+    }
+
+    private void scheduleUpdate() {
+        if (pendingUpdate == null) {
+            pendingUpdate = ui.beforeClientResponse(ui, context -> {
+                pendingUpdate = null;
+                execute();
+            });
+        }
+    }
+
+    /**
+     * Removes the given picker from the next update, eg. when it got an
+     * explicit locale or was detached.
+     */
+    void cancel(EnhancedTimePicker picker) {
+        pending.remove(picker);
+    }
+
+    /**
+     * Removes the given date picker from the next update, eg. when its date
+     * time picker got an explicit locale or was detached.
+     */
+    void cancel(EnhancedDatePicker picker) {
+        pendingDatePickers.remove(picker);
+    }
+
+    /**
+     * Gets the time format metadata of the given locale to send with it, or a
+     * JSON null if the client of the UI already has it.
+     */
+    JsonValue takeMetadata(Locale locale) {
+        if (sentMetadata.add(EnhancedTimePicker.toLanguageTag(locale))) {
+            return TimeFormatMetadata.get(locale).toJson();
+        }
+        return Json.createNull();
+    }
+
+    /**
+     * Gets the relative input vocabulary of the given locale to send with it,
+     * or a JSON null if the client of the UI already has it.
+     */
+    JsonValue takeRelativeInputVocabulary(Locale locale) {
+        if (sentRelativeInputVocabularies
+                .add(EnhancedTimePicker.toLanguageTag(locale))) {
+            return RelativeInputParser.of(locale).toJson();
+        }
+        return Json.createNull();
+    }
+
+    private void execute() {
+        // $0 and $1 are the locale and its metadata
+        List<Serializable> parameters = new ArrayList<>();
+        parameters.add(null);
+        parameters.add(null);
+        String timePickers = toParameters(pending, parameters);
+        String datePickers = toParameters(pendingDatePickers, parameters);
+        pending.clear();
+        pendingDatePickers.clear();
+        if (parameters.size() == 2) {
+            return;
+        }
+        Locale locale = ui.getLocale();
+        parameters.set(0, EnhancedTimePicker.toLanguageTag(locale));
+        parameters.set(1, takeMetadata(locale));
+        ui.getPage().executeJs(
+                "window.Vaadin.Flow.enhancedTimepickerConnector.setLocaleBatch($0, $1, ["
+                        + timePickers + "], [" + datePickers + "])",
+                parameters.toArray(new Serializable[0]));
+    }
+
+    private String toParameters(Set<? extends Component> pickers,
+            List<Serializable> parameters) {
+        StringBuilder elements = new StringBuilder();
+        for (Component picker : pickers) {
+            Element element = picker.getElement();
+            if (picker.getUI().filter(ui::equals).isPresent()) {
+                elements.append(elements.length() == 0 ? "$" : ",$")
+                        .append(parameters.size());
+                parameters.add(element);
+            }
+        }
+        return elements.toString();
+    }
+}
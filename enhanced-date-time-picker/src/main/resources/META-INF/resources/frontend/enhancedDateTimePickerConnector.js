@@ -0,0 +1,565 @@
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+    // Execute callback when predicate returns true.
+    // Try again later if predicate returns false.
+    function when(predicate, callback, timeout = 0) {
+        if (predicate()) {
+            callback();
+        } else {
+            setTimeout(() => when(predicate, callback, 200), timeout);
+        }
+    }
+
+    const RELATIVE_INPUT_VERSION = 1;
+
+    // Creates the parser of relative expressions like "tomorrow 9" or "+2h", the same grammar as
+    // in RelativeInputParser.java, from the vocabulary of its toJson(). The parser takes the text
+    // and the current time and returns an ISO date time, or null if the text is not relative.
+    const createRelativeParser = function (locale, vocabulary) {
+        // trie of the words, each node knowing the token shared by all the words below it
+        const AMBIGUOUS = '';
+        const trie = { children: {} };
+        Object.keys(vocabulary.words).forEach(word => {
+            const token = vocabulary.words[word];
+            let node = trie;
+            for (let i = 0; ; i++) {
+                node.prefixToken = node.prefixToken === undefined || node.prefixToken === token ? token : AMBIGUOUS;
+                if (i === word.length) {
+                    node.token = token;
+                    break;
+                }
+                node = node.children[word[i]] || (node.children[word[i]] = { children: {} });
+            }
+        });
+        const find = function (word) {
+            let node = trie;
+            for (let i = 0; i < word.length && node; i++) {
+                node = node.children[word[i]];
+            }
+            return !node ? null : node.token !== undefined ? node.token : node.prefixToken;
+        };
+
+        const zeroDigit = vocabulary.zeroDigit.charCodeAt(0);
+        const digitValue = function (c) {
+            const code = c === undefined ? -1 : c.charCodeAt(0);
+            if (code >= 48 && code <= 57) {
+                return code - 48;
+            }
+            return code >= zeroDigit && code <= zeroDigit + 9 ? code - zeroDigit : -1;
+        };
+        const isLetter = c => /\p{L}/u.test(c);
+
+        // numbers, times as {hours, minutes}, signs as {sign} and the tokens of the words
+        const tokenize = function (text) {
+            const lowerCase = text.toLocaleLowerCase(locale);
+            const tokens = [];
+            let i = 0;
+            while (i < lowerCase.length) {
+                const c = lowerCase[i];
+                if (digitValue(c) >= 0) {
+                    let end = i;
+                    let number = 0;
+                    while (end < lowerCase.length && digitValue(lowerCase[end]) >= 0) {
+                        number = number * 10 + digitValue(lowerCase[end]);
+                        end++;
+                    }
+                    if (end - i > 4) {
+                        return null;
+                    }
+                    if (end + 2 < lowerCase.length && lowerCase[end] === ':'
+                        && digitValue(lowerCase[end + 1]) >= 0 && digitValue(lowerCase[end + 2]) >= 0) {
+                        const minutes = digitValue(lowerCase[end + 1]) * 10 + digitValue(lowerCase[end + 2]);
+                        if (number > 23 || minutes > 59) {
+                            return null;
+                        }
+                        tokens.push({ hours: number, minutes: minutes });
+                        end += 3;
+                    } else {
+                        tokens.push(number);
+                    }
+                    i = end;
+                } else if (c === '+' || c === '-') {
+                    tokens.push({ sign: c });
+                    i++;
+                } else if (isLetter(c)) {
+                    let end = i;
+                    let word = '';
+                    while (end < lowerCase.length && (isLetter(lowerCase[end]) || lowerCase[end] === '.')) {
+                        if (lowerCase[end] !== '.') {
+                            word += lowerCase[end];
+                        }
+                        end++;
+                    }
+                    const token = find(word);
+                    if (token === null || token === undefined || token === AMBIGUOUS) {
+                        return null;
+                    }
+                    tokens.push(token);
+                    i = end;
+                } else if (/\s/.test(c) || c === ',') {
+                    i++;
+                } else {
+                    return null;
+                }
+            }
+            return tokens;
+        };
+
+        const isWeekday = token => typeof token === 'string' && token.startsWith('wd');
+        const isTime = token => typeof token === 'object' && token.hours !== undefined;
+        // local date times are calculated as UTC dates, so that daylight saving time does not interfere
+        const MINUTE = 60 * 1000;
+        const DAY = 24 * 60 * MINUTE;
+        const isoDayOfWeek = date => (date.getUTCDay() + 6) % 7 + 1;
+
+        const evaluate = function (tokens, now) {
+            let pos = 0;
+            let relative = false;
+            let result;
+            const today = now - now % DAY;
+
+            if (tokens[pos] === 'now') {
+                relative = true;
+                result = now;
+                pos++;
+            } else {
+                let date = null;
+                let token = tokens[pos];
+                if (token === 'today') {
+                    date = today;
+                    pos++;
+                } else if (token === 'tomorrow') {
+                    date = today + DAY;
+                    pos++;
+                } else if (token === 'yesterday') {
+                    date = today - DAY;
+                    pos++;
+                } else if (token === 'next' || token === 'last' || isWeekday(token)) {
+                    if (!isWeekday(token)) {
+                        pos++;
+                    }
+                    const weekday = tokens[pos];
+                    if (!isWeekday(weekday)) {
+                        return null;
+                    }
+                    let days = (parseInt(weekday.substring(2), 10) - isoDayOfWeek(new Date(today)) + 7) % 7;
+                    if (token === 'next' && days === 0) {
+                        days = 7;
+                    } else if (token === 'last') {
+                        days = days === 0 ? -7 : days - 7;
+                    }
+                    date = today + days * DAY;
+                    pos++;
+                }
+                relative = date !== null;
+
+                let time = null;
+                token = tokens[pos];
+                if (isTime(token) || typeof token === 'number') {
+                    let hours = isTime(token) ? token.hours : token;
+                    const minutes = isTime(token) ? token.minutes : 0;
+                    pos++;
+                    const period = tokens[pos];
+                    if (period === 'am' || period === 'pm') {
+                        if (hours < 1 || hours > 12) {
+                            return null;
+                        }
+                        hours = hours % 12 + (period === 'pm' ? 12 : 0);
+                        pos++;
+                    }
+                    if (hours > 23) {
+                        return null;
+                    }
+                    time = (hours * 60 + minutes) * MINUTE;
+                }
+                // only offsets are relative to now
+                result = date === null && time === null ? now : (date !== null ? date : today) + (time || 0);
+            }
+
+            const units = { m: MINUTE, h: 60 * MINUTE, d: DAY, w: 7 * DAY };
+            while (pos < tokens.length) {
+                const sign = tokens[pos];
+                const amount = tokens[pos + 1];
+                const unit = units[tokens[pos + 2]];
+                if (!sign || !sign.sign || typeof amount !== 'number' || !unit) {
+                    return null;
+                }
+                result += (sign.sign === '-' ? -amount : amount) * unit;
+                relative = true;
+                pos += 3;
+            }
+            return relative ? result : null;
+        };
+
+        return function (text, now) {
+            const tokens = tokenize(text);
+            // the current local time in minutes, as a UTC date
+            const utcNow = Date.UTC(now.getFullYear(), now.getMonth(), now.getDate(), now.getHours(), now.getMinutes());
+            const result = tokens && evaluate(tokens, utcNow);
+            return result === null || result === undefined ? null : new Date(result).toISOString().substring(0, 16);
+        };
+    };
+
+    window.Vaadin.Flow.enhancedDateTimePickerConnector = {
+        // date picker i18n objects shared by the date time pickers of each UI, keyed by the id of the
+        // registry of the UI and then as in DatePickerI18nRegistry.java
+        datePickerI18ns: {},
+
+        // relative input parsers by locale, created from the vocabularies sent by the server
+        relativeParsers: {},
+
+        initLazy: function (dateTimePicker, datePicker, timePicker) {
+            // Check whether the connector was already initialized for the date time picker
+            if (dateTimePicker.$connector) {
+                return;
+            }
+
+            dateTimePicker.$connector = {};
+            // disabled dates as one bit mask per month, keyed by yyyy-MM
+            dateTimePicker.$connector.disabledMonths = {};
+            // disabled time intervals as [start, end) milliseconds of day, keyed by yyyy-MM-dd
+            dateTimePicker.$connector.disabledTimes = {};
+
+            const wholeDay = [0, 24 * 60 * 60 * 1000];
+            const noTimes = [];
+
+            dateTimePicker.$connector.getDisabledTimes = function (isoDate) {
+                if (!isoDate) {
+                    return noTimes;
+                }
+                const mask = this.disabledMonths[isoDate.substring(0, 7)];
+                const day = parseInt(isoDate.substring(8, 10), 10);
+                if (mask && (mask >>> (day - 1)) & 1) {
+                    return wholeDay;
+                }
+                return this.disabledTimes[isoDate] || noTimes;
+            };
+
+            // shared with the time picker connector, which is loaded with the time picker
+            const intervalsContain = window.Vaadin.Flow.enhancedTimepickerConnector.intervalsContain;
+            const parseIsoTimeToMilliseconds = window.Vaadin.Flow.enhancedTimepickerConnector.parseIsoTimeToMilliseconds;
+
+            // used by the client side validation in addition to checkValidity(),
+            // expects an ISO date time value, eg. 2021-06-30T14:30
+            dateTimePicker.$connector.isValueRestricted = function (value) {
+                const separatorIndex = value.indexOf('T');
+                if (separatorIndex < 0) {
+                    return false;
+                }
+                const isoDate = value.substring(0, separatorIndex);
+                const milliseconds = parseIsoTimeToMilliseconds(value.substring(separatorIndex + 1));
+                const availableTimes = timePicker.$connector && timePicker.$connector.availableTimes;
+                return intervalsContain(this.getDisabledTimes(isoDate), milliseconds)
+                    || (!!availableTimes && !intervalsContain(availableTimes, milliseconds));
+            };
+
+            const updateTimePicker = function () {
+                when(() => timePicker.$connector, () => {
+                    timePicker.$connector.setDisabledTimes(
+                        dateTimePicker.$connector.getDisabledTimes(datePicker.value));
+                });
+            };
+
+            dateTimePicker.$connector.setDisabledDateTimes = function (months, times) {
+                Object.assign(this.disabledMonths, months);
+                Object.assign(this.disabledTimes, times);
+                updateTimePicker();
+                scheduleCalendarUpdate();
+            };
+
+            dateTimePicker.$connector.clearDisabledDateTimes = function () {
+                this.disabledMonths = {};
+                this.disabledTimes = {};
+                requestedMonths = {};
+                updateTimePicker();
+                scheduleCalendarUpdate();
+            };
+
+            // the calendar shows the dates disabled as a whole like the dates out of the minimum
+            // and maximum, the months it renders are requested from the server when not known yet
+            let requestedMonths = {};
+            let calendarUpdate = null;
+
+            const toMonthKey = function (date) {
+                return String(date.getFullYear()).padStart(4, '0') + '-' + String(date.getMonth() + 1).padStart(2, '0');
+            };
+
+            dateTimePicker.$connector.isDateDisabled = function (date) {
+                const mask = this.disabledMonths[toMonthKey(date)];
+                return !!mask && ((mask >>> (date.getDate() - 1)) & 1) === 1;
+            };
+
+            // FIXME works but uses private API, the overlay content and the month calendars check
+            // the dates with _dateAllowed, for rendering and for the keyboard navigation
+            const patchDateAllowed = function (target) {
+                if (target.$enhancedDateAllowed) {
+                    return;
+                }
+                const dateAllowed = target._dateAllowed;
+                target.$enhancedDateAllowed = true;
+                target._dateAllowed = function (date, min, max) {
+                    return dateAllowed.call(this, date, min, max)
+                        && !(date && dateTimePicker.$connector.isDateDisabled(date));
+                };
+            };
+
+            // the days rendered before the patch or before the months arrived
+            const refreshCalendar = function (calendar) {
+                calendar.shadowRoot.querySelectorAll('[part~="date"]').forEach(day => {
+                    if (day.date) {
+                        const disabled = !calendar._dateAllowed(day.date, calendar.minDate, calendar.maxDate);
+                        day.toggleAttribute('disabled', disabled);
+                        day.setAttribute('aria-disabled', String(disabled));
+                    }
+                });
+            };
+
+            const updateCalendars = function () {
+                calendarUpdate = null;
+                const content = datePicker.opened && datePicker._overlayContent;
+                if (!content || !content.shadowRoot) {
+                    return;
+                }
+                patchDateAllowed(content);
+                if (!content.$enhancedScrollListener) {
+                    content.$enhancedScrollListener = true;
+                    content.$.monthScroller.addEventListener('custom-scroll', scheduleCalendarUpdate);
+                }
+                // without a provider on the server no months are sent, not even the ones around
+                // the selected date
+                const known = dateTimePicker.$connector.disabledMonths;
+                const hasProvider = Object.keys(known).length > 0;
+                const missing = [];
+                // the calendars are stamped lazily and reused while scrolling
+                content.shadowRoot.querySelectorAll('vaadin-month-calendar').forEach(calendar => {
+                    if (!calendar.shadowRoot) {
+                        return;
+                    }
+                    patchDateAllowed(calendar);
+                    refreshCalendar(calendar);
+                    const key = calendar.month && toMonthKey(calendar.month);
+                    if (hasProvider && key && !(key in known) && !requestedMonths[key]) {
+                        requestedMonths[key] = true;
+                        missing.push(key);
+                    }
+                });
+                if (missing.length) {
+                    dateTimePicker.$server.requestDisabledMonths(missing);
+                }
+            };
+
+            const scheduleCalendarUpdate = function () {
+                if (!calendarUpdate) {
+                    calendarUpdate = requestAnimationFrame(updateCalendars);
+                }
+            };
+
+            datePicker.addEventListener('opened-changed', event => {
+                if (event.detail.value) {
+                    scheduleCalendarUpdate();
+                    // the first calendars are stamped after the overlay has been opened
+                    setTimeout(scheduleCalendarUpdate, 100);
+                }
+            });
+
+            // i18n is null when another picker of the UI has already sent the object of the key
+            dateTimePicker.$connector.setDatePickerI18n = function (registryId, key, i18n) {
+                const registries = window.Vaadin.Flow.enhancedDateTimePickerConnector.datePickerI18ns;
+                const i18ns = registries[registryId] || (registries[registryId] = {});
+                if (i18n) {
+                    i18ns[key] = i18n;
+                } else if (!i18ns[key]) {
+                    // lost with a reload of a view that preserves its UI
+                    dateTimePicker.$server.resendDatePickerI18n();
+                    return;
+                }
+                datePicker.i18n = Object.assign({}, datePicker.i18n, i18ns[key]);
+            };
+
+            // the relative expressions typed into the date or the time picker are applied when
+            // leaving the field or pressing enter, before the pickers parse the text themselves
+            dateTimePicker.$connector.relativeParser = null;
+
+            dateTimePicker.$connector.setRelativeInput = function (locale, vocabulary) {
+                const connector = window.Vaadin.Flow.enhancedDateTimePickerConnector;
+                if (vocabulary && vocabulary.version === RELATIVE_INPUT_VERSION) {
+                    connector.relativeParsers[locale] = createRelativeParser(locale, vocabulary);
+                }
+                this.relativeParser = locale ? connector.relativeParsers[locale] || null : null;
+            };
+
+            const applyRelativeInput = function (event) {
+                const parser = dateTimePicker.$connector.relativeParser;
+                const path = event.composedPath();
+                const field = [datePicker, timePicker].find(picker => path.indexOf(picker) >= 0);
+                if (!parser || !field || !field.inputElement) {
+                    return false;
+                }
+                const text = field.inputElement.value;
+                const now = new Date();
+                const value = text && parser(text, now);
+                if (!value) {
+                    return false;
+                }
+                field.opened = false;
+                dateTimePicker.value = value;
+                // the server checks the result with the same time
+                dateTimePicker.dispatchEvent(new CustomEvent('enhanced-relative-input', {
+                    detail: { text: text, now: parser('now', now) }
+                }));
+                return true;
+            };
+
+            dateTimePicker.addEventListener('keydown', event => {
+                if (event.key === 'Enter' && applyRelativeInput(event)) {
+                    event.stopPropagation();
+                }
+            }, true);
+            dateTimePicker.addEventListener('focusout', applyRelativeInput, true);
+
+            // time bounds depending on the selected date, see DailyTimeBounds.toJson()
+            dateTimePicker.$connector.dailyTimeBounds = null;
+
+            const getDailyTimeBounds = function (isoDate) {
+                const table = dateTimePicker.$connector.dailyTimeBounds;
+                if (!table || !isoDate) {
+                    return null;
+                }
+                if (table.dates[isoDate]) {
+                    return table.dates[isoDate];
+                }
+                const parts = isoDate.split('-');
+                // ISO day of week, Monday being 1
+                const dayOfWeek = (new Date(Date.UTC(parseInt(parts[0], 10), parseInt(parts[1], 10) - 1,
+                    parseInt(parts[2], 10))).getUTCDay() + 6) % 7 + 1;
+                return table.daysOfWeek[dayOfWeek] || table.default;
+            };
+
+            const laterTime = function (a, b) {
+                return !a ? b : !b ? a : (parseIsoTimeToMilliseconds(a) >= parseIsoTimeToMilliseconds(b) ? a : b);
+            };
+
+            const earlierTime = function (a, b) {
+                return !a ? b : !b ? a : (parseIsoTimeToMilliseconds(a) <= parseIsoTimeToMilliseconds(b) ? a : b);
+            };
+
+            // time picker min and max as set by the date time picker itself for the selected date
+            let baseTimeMin = timePicker.min;
+            let baseTimeMax = timePicker.max;
+
+            const applyDailyTimeBounds = function () {
+                const bounds = getDailyTimeBounds(datePicker.value);
+                timePicker.min = (bounds ? laterTime(baseTimeMin, bounds[0]) : baseTimeMin) || '';
+                timePicker.max = (bounds ? earlierTime(baseTimeMax, bounds[1]) : baseTimeMax) || '';
+            };
+
+            // FIXME works but uses private API, the date time picker resets the time
+            // picker min and max whenever the selected date or its own min and max change
+            when(() => dateTimePicker.$, () => {
+                const updateTimePickerMinMax = dateTimePicker.__updateTimePickerMinMax;
+                if (!updateTimePickerMinMax) {
+                    return;
+                }
+                dateTimePicker.__updateTimePickerMinMax = function () {
+                    updateTimePickerMinMax.apply(dateTimePicker, arguments);
+                    baseTimeMin = timePicker.min;
+                    baseTimeMax = timePicker.max;
+                    if (dateTimePicker.$connector.dailyTimeBounds) {
+                        applyDailyTimeBounds();
+                    }
+                };
+            });
+
+            dateTimePicker.$connector.setDailyTimeBounds = function (table) {
+                if (!this.dailyTimeBounds) {
+                    baseTimeMin = timePicker.min;
+                    baseTimeMax = timePicker.max;
+                }
+                this.dailyTimeBounds = table;
+                applyDailyTimeBounds();
+            };
+
+            // selecting another date only needs a local lookup to update the time dropdown
+            datePicker.addEventListener('value-changed', () => {
+                updateTimePicker();
+                if (dateTimePicker.$connector.dailyTimeBounds) {
+                    applyDailyTimeBounds();
+                }
+            });
+        },
+
+        // for LightweightEnhancedDateTimePicker, which has no server side children: the date
+        // time picker creates its default date and time pickers itself, they are configured here
+        initLightweight: function (dateTimePicker) {
+            if (dateTimePicker.$lightweightConnector) {
+                return;
+            }
+
+            dateTimePicker.$lightweightConnector = {};
+            const dateFns = window.Vaadin.Flow.enhancedTimepickerConnector.dateFns;
+
+            // FIXME works but uses private API, the children created by the date time picker are not exposed
+            const whenChildren = function (callback) {
+                when(() => dateTimePicker.__datePicker && dateTimePicker.__timePicker,
+                    () => callback(dateTimePicker.__datePicker, dateTimePicker.__timePicker));
+            };
+
+            whenChildren((datePicker, timePicker) => {
+                this.initLazy(dateTimePicker, datePicker, timePicker);
+                window.Vaadin.Flow.enhancedTimepickerConnector.initLazy(timePicker);
+            });
+
+            const toDate = function (dateObject) {
+                const date = new Date(dateObject.year, dateObject.month, dateObject.day);
+                // years below 100 are not mapped to 19xx
+                date.setFullYear(dateObject.year);
+                return date;
+            };
+
+            const applyDatePattern = function (datePicker, language, datePattern) {
+                const options = () => ({ locale: dateFns.locales[language] });
+                datePicker.i18n = Object.assign({}, datePicker.i18n, {
+                    formatDate: dateObject => dateFns.format(toDate(dateObject), datePattern, options()),
+                    parseDate: text => {
+                        const date = dateFns.parse(text, datePattern, new Date(), options());
+                        return isNaN(date) ? undefined
+                            : { day: date.getDate(), month: date.getMonth(), year: date.getFullYear() };
+                    }
+                });
+            };
+
+            // locale is a language tag, timeMetadata as sent to the time picker connector, the
+            // patterns are date-fns patterns, timePattern being null for the locale format
+            dateTimePicker.$lightweightConnector.setFormat = function (locale, timeMetadata, datePattern, timePattern) {
+                whenChildren((datePicker, timePicker) => {
+                    const language = locale.split('-')[0];
+                    applyDatePattern(datePicker, language, datePattern);
+                    if (!dateFns.locales[language]) {
+                        // reformat the date once the names of the locale are there
+                        dateFns.loadLocale(language).then(() => applyDatePattern(datePicker, language, datePattern));
+                    }
+                    when(() => timePicker.$connector, () => {
+                        timePicker.$connector.pattern = timePattern;
+                        timePicker.$connector.setLocale(locale, timeMetadata);
+                    });
+                });
+            };
+        }
+    };
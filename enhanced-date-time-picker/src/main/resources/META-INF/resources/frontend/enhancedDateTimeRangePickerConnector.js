@@ -0,0 +1,72 @@
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+    window.Vaadin.Flow.enhancedDateTimeRangePickerConnector = {
+        // field is the element of an EnhancedDateTimeRangePicker, start and end are the date time
+        // pickers of the two ends of the range
+        initLazy: function (field, start, end) {
+            // Check whether the connector was already initialized for the field
+            if (field.$connector) {
+                return;
+            }
+
+            field.$connector = {};
+
+            // shared with the time picker connector, which is loaded with the time pickers of the ends
+            const parseIsoTimeToMilliseconds = window.Vaadin.Flow.enhancedTimepickerConnector.parseIsoTimeToMilliseconds;
+
+            // ISO date times of any precision, eg. 2021-06-30T09:30 and 2021-06-30T09:30:00.000,
+            // as comparable milliseconds
+            const toMilliseconds = function (isoDateTime) {
+                const separatorIndex = isoDateTime.indexOf('T');
+                const dateParts = isoDateTime.substring(0, separatorIndex).split('-');
+                const date = new Date(0);
+                date.setUTCFullYear(parseInt(dateParts[0], 10), parseInt(dateParts[1], 10) - 1,
+                    parseInt(dateParts[2], 10));
+                return date.getTime() + parseIsoTimeToMilliseconds(isoDateTime.substring(separatorIndex + 1));
+            };
+
+            const later = function (a, b) {
+                if (!a || !b) {
+                    return a || b;
+                }
+                return toMilliseconds(a) > toMilliseconds(b) ? a : b;
+            };
+
+            const earlier = function (a, b) {
+                if (!a || !b) {
+                    return a || b;
+                }
+                return toMilliseconds(a) < toMilliseconds(b) ? a : b;
+            };
+
+            // the same bounds as the server sets on the ends, applied right away so that selecting
+            // one end does not need a round-trip to update the other
+            field.$connector.applyConstraints = function () {
+                start.min = field.rangeMin || '';
+                start.max = earlier(end.value, field.rangeMax) || '';
+                end.min = later(start.value, field.rangeMin) || '';
+                end.max = field.rangeMax || '';
+            };
+
+            start.addEventListener('value-changed', () => field.$connector.applyConstraints());
+            end.addEventListener('value-changed', () => field.$connector.applyConstraints());
+            field.$connector.applyConstraints();
+        }
+    };
@@ -0,0 +1,120 @@
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+    window.Vaadin.Flow.enhancedMultiDateTimePickerConnector = {
+        // list is the element showing the selected timestamps of an EnhancedMultiDateTimePicker
+        initLazy: function (list) {
+            // Check whether the connector was already initialized for the list
+            if (list.$connector) {
+                return;
+            }
+
+            list.$connector = {};
+            // the selected timestamps as sorted epoch milliseconds, like on the server
+            list.$connector.values = [];
+            list.$connector.format = null;
+
+            // index of the first value not less than the given one
+            const lowerBound = function (values, value) {
+                let low = 0;
+                let high = values.length;
+                while (low < high) {
+                    const mid = (low + high) >>> 1;
+                    if (values[mid] < value) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                return low;
+            };
+
+            const formatValue = function (value) {
+                return list.$connector.format ? list.$connector.format.format(new Date(value))
+                    : new Date(value).toISOString();
+            };
+
+            const createItem = function (value) {
+                const item = document.createElement('span');
+                item.setAttribute('part', 'timestamp');
+                item.textContent = formatValue(value);
+                const remove = document.createElement('span');
+                remove.setAttribute('part', 'remove-button');
+                remove.setAttribute('role', 'button');
+                remove.setAttribute('aria-label', 'Remove');
+                remove.textContent = '×';
+                remove.addEventListener('click', () => {
+                    if (list.hasAttribute('readonly') || list.hasAttribute('disabled')) {
+                        return;
+                    }
+                    // removed right away, the server applies the same change to its copy
+                    list.$connector.remove([value]);
+                    list.dispatchEvent(new CustomEvent('timestamp-remove', { detail: { value: value } }));
+                });
+                item.appendChild(remove);
+                return item;
+            };
+
+            list.$connector.add = function (added) {
+                added.forEach(value => {
+                    const index = lowerBound(this.values, value);
+                    if (this.values[index] !== value) {
+                        this.values.splice(index, 0, value);
+                        list.insertBefore(createItem(value), list.children[index] || null);
+                    }
+                });
+            };
+
+            list.$connector.remove = function (removed) {
+                removed.forEach(value => {
+                    const index = lowerBound(this.values, value);
+                    if (this.values[index] === value) {
+                        this.values.splice(index, 1);
+                        list.removeChild(list.children[index]);
+                    }
+                });
+            };
+
+            list.$connector.reset = function (values) {
+                this.values = [];
+                while (list.firstChild) {
+                    list.removeChild(list.firstChild);
+                }
+                this.add(values);
+            };
+
+            // reformats all the items, the zone being an IANA time zone id
+            list.$connector.setFormat = function (locale, zone) {
+                try {
+                    this.format = new Intl.DateTimeFormat(locale, {
+                        year: 'numeric', month: 'numeric', day: 'numeric',
+                        hour: 'numeric', minute: '2-digit', timeZone: zone
+                    });
+                } catch (e) {
+                    // unknown locale or zone, the browser defaults are used
+                    this.format = new Intl.DateTimeFormat(undefined, {
+                        year: 'numeric', month: 'numeric', day: 'numeric', hour: 'numeric', minute: '2-digit'
+                    });
+                }
+                this.values.forEach((value, index) => {
+                    list.children[index].firstChild.textContent = formatValue(value);
+                });
+            };
+        }
+    };
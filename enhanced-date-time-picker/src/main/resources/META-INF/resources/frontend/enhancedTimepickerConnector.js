@@ -27,7 +27,84 @@
         }
     }
 
+    // version of the time format metadata this connector understands, see TimeFormatMetadata.java
+    const METADATA_VERSION = 1;
+
+    // Value of each decimal digit character, -1 for other characters. Covers the digits of the
+    // common scripts, and the digits of any other locale are added when its metadata arrives.
+    const digitValues = new Int8Array(0x10000).fill(-1);
+    const registerDigits = function (zeroDigit) {
+        for (let i = 0; i < 10; i++) {
+            digitValues[zeroDigit + i] = i;
+        }
+    };
+    // latin, arabic-indic, extended arabic-indic, devanagari, bengali, gujarati, tamil, telugu,
+    // kannada, malayalam, thai, lao, myanmar, khmer and fullwidth digits
+    [0x30, 0x660, 0x6F0, 0x966, 0x9E6, 0xAE6, 0xBE6, 0xC66, 0xCE6, 0xD66, 0xE50, 0xED0, 0x1040, 0x17E0, 0xFF10]
+        .forEach(registerDigits);
+
     window.Vaadin.Flow.enhancedTimepickerConnector = {
+        // time format metadata computed by the server, keyed by locale,
+        // the server sends the metadata of a locale only once per page
+        localeMetadata: {},
+
+        // format and parse of date-fns, the date-fns locales loaded so far by language and
+        // loadLocale(language) loading one, passed in by enhancedTimepickerConnectorModule.js
+        dateFns: null,
+
+        storeLocaleMetadata: function (locale, metadata) {
+            if (metadata && metadata.version === METADATA_VERSION) {
+                this.localeMetadata[locale] = metadata;
+            }
+        },
+
+        // applies the locale of the UI to all the given time pickers, and to the date pickers of the
+        // date time pickers, in one animation frame. The connectors are initialized by then since
+        // initLazy is called in the same response.
+        setLocaleBatch: function (locale, metadata, timepickers, datepickers = []) {
+            this.storeLocaleMetadata(locale, metadata);
+            requestAnimationFrame(() => {
+                timepickers.forEach(timepicker => {
+                    if (timepicker && timepicker.$connector && timepicker.$connector.locale !== locale) {
+                        timepicker.$connector.setLocale(locale);
+                    }
+                });
+                // the date picker connector applies the locale the same way as for its own calls
+                datepickers.forEach(datepicker => {
+                    if (datepicker && datepicker.$connector && datepicker.$connector.setLocale) {
+                        datepicker.$connector.setLocale(locale);
+                    }
+                });
+            });
+        },
+
+        // binary search for the interval containing the given milliseconds of day, the intervals
+        // being a flat sorted array of [start, end) pairs as in TimeIntervalSet.java.
+        // Also used by the date time picker connector.
+        intervalsContain: function (intervals, milliseconds) {
+            let low = 0;
+            let high = intervals.length / 2 - 1;
+            while (low <= high) {
+                const mid = (low + high) >>> 1;
+                if (intervals[2 * mid] <= milliseconds) {
+                    if (milliseconds < intervals[2 * mid + 1]) {
+                        return true;
+                    }
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return false;
+        },
+
+        // milliseconds of day of an ISO time value, eg. 14:30 or 14:30:15.250
+        parseIsoTimeToMilliseconds: function (isoTime) {
+            const parts = isoTime.split(':');
+            const seconds = parts.length > 2 ? parseFloat(parts[2]) : 0;
+            return (parseInt(parts[0], 10) * 60 + parseInt(parts[1], 10)) * 60000 + Math.round(seconds * 1000);
+        },
+
         initLazy: function (timepicker) {
             // Check whether the connector was already initialized for the timepicker
             if (timepicker.$connector) {
@@ -35,8 +112,279 @@
             }
 
             timepicker.$connector = {};
+            const dateFns = window.Vaadin.Flow.enhancedTimepickerConnector.dateFns;
             timepicker.$connector.pattern;
             timepicker.$connector.parsers = [];            
+            // disabled time intervals as a flat sorted array [start0, end0, start1, end1, ...]
+            // in milliseconds of day, the end of each interval is exclusive
+            timepicker.$connector.disabledTimes = [];
+            // selectable time windows in the same format, null when any time is allowed
+            timepicker.$connector.availableTimes = null;
+            // whether to generate dropdown items for steps under 15 minutes
+            timepicker.$connector.virtualizedDropdown = false;
+            // whether the arrow and page keys change the time while the dropdown is closed
+            timepicker.$connector.keyboardStepping = false;
+            // time format metadata of the current locale, null when it needs to be inferred
+            timepicker.$connector.localeMetadata = null;
+
+            const intervalsContain = window.Vaadin.Flow.enhancedTimepickerConnector.intervalsContain;
+            const parseIsoTimeToMilliseconds = window.Vaadin.Flow.enhancedTimepickerConnector.parseIsoTimeToMilliseconds;
+
+            const hasTimeRestrictions = function () {
+                return timepicker.$connector.disabledTimes.length > 0
+                    || timepicker.$connector.availableTimes !== null;
+            };
+
+            timepicker.$connector.isTimeAllowed = function (milliseconds) {
+                return !intervalsContain(this.disabledTimes, milliseconds)
+                    && (this.availableTimes === null || intervalsContain(this.availableTimes, milliseconds));
+            };
+
+            // regenerate the dropdown items for the current min, max and step
+            const refreshDropdownItems = function () {
+                when(() => timepicker.$, () => {
+                    if (timepicker.__updateDropdownItems) {
+                        timepicker.__updateDropdownItems(timepicker.i18n, timepicker.min, timepicker.max, timepicker.step);
+                    }
+                });
+            };
+
+            // the web component does not generate items for steps under 15 minutes,
+            // virtualized items are generated for steps down to one minute (1440 items)
+            const isVirtualizedStep = function (step) {
+                return timepicker.$connector.virtualizedDropdown && step >= 60 && step < 900 && 86400 % step === 0;
+            };
+
+            // item whose label is formatted only when the dropdown renders it, the
+            // combo box only renders the visible slice of the items
+            const createVirtualizedItem = function (milliseconds) {
+                let formatted;
+                const format = function () {
+                    if (formatted === undefined) {
+                        formatted = timepicker.i18n.formatTime({
+                            hours: Math.floor(milliseconds / 3600000),
+                            minutes: Math.floor(milliseconds / 60000) % 60,
+                            seconds: Math.floor(milliseconds / 1000) % 60,
+                            milliseconds: milliseconds % 1000
+                        });
+                    }
+                    return formatted;
+                };
+                return {
+                    get label() {
+                        return format();
+                    },
+                    get value() {
+                        return format();
+                    }
+                };
+            };
+
+            const generateVirtualizedDropdownList = function (minSec, maxSec, step) {
+                const items = [];
+                for (let time = minSec; time <= maxSec; time += step) {
+                    items.push(createVirtualizedItem(Math.round(time * 1000)));
+                }
+                return items;
+            };
+
+            // FIXME works but uses private API, needs a filter hook in web component
+            when(() => timepicker.$, () => {
+                const generateDropdownList = timepicker.__generateDropdownList;
+                if (!generateDropdownList) {
+                    return;
+                }
+                timepicker.__generateDropdownList = function (minSec, maxSec, step) {
+                    const itemStep = step || 3600;
+                    let items = generateDropdownList.call(timepicker, minSec, maxSec, step);
+                    if (items.length === 0 && isVirtualizedStep(itemStep)) {
+                        items = generateVirtualizedDropdownList(minSec, maxSec, itemStep);
+                    }
+                    if (!hasTimeRestrictions()) {
+                        return items;
+                    }
+                    // the items are generated in order from minSec on, one step apart
+                    return items.filter((item, index) =>
+                        timepicker.$connector.isTimeAllowed(Math.round((minSec + index * itemStep) * 1000)));
+                };
+                if (hasTimeRestrictions() || timepicker.$connector.virtualizedDropdown) {
+                    refreshDropdownItems();
+                }
+            });
+
+            timepicker.$connector.setVirtualizedDropdown = function (virtualizedDropdown) {
+                this.virtualizedDropdown = virtualizedDropdown;
+                refreshDropdownItems();
+            };
+
+            timepicker.$connector.setDisabledTimes = function (intervals) {
+                this.disabledTimes = intervals || [];
+                refreshDropdownItems();
+            };
+
+            // used by the client side validation in addition to checkValidity()
+            timepicker.$connector.isValueRestricted = function (value) {
+                return hasTimeRestrictions() && !this.isTimeAllowed(parseIsoTimeToMilliseconds(value));
+            };
+
+            timepicker.$connector.setAvailableTimes = function (intervals) {
+                this.availableTimes = intervals || null;
+                refreshDropdownItems();
+            };
+
+            timepicker.$connector.setKeyboardStepping = function (keyboardStepping) {
+                this.keyboardStepping = keyboardStepping;
+            };
+
+            const MILLISECONDS_PER_DAY = 24 * 60 * 60 * 1000;
+            // how long the value is kept on the client after the last step
+            const STEPPING_SYNC_DELAY = 500;
+            // milliseconds of the hours, minutes and seconds segments
+            const SEGMENT_UNITS = [3600000, 60000, 1000];
+
+            // the time shown while stepping, in milliseconds of day, and the pending value sync
+            let steppedTime = null;
+            let steppingSync = null;
+
+            // the hours, minutes and seconds segments of the text as [start, end] ranges,
+            // in the same way as the parser splits the digits
+            const findSegments = function (text) {
+                const segments = [];
+                let segment = null;
+                for (let i = 0; i < text.length && segments.length <= 3; i++) {
+                    if (digitValues[text.charCodeAt(i)] < 0 || (segment && segment[1] - segment[0] === 2)) {
+                        segment = null;
+                    }
+                    if (digitValues[text.charCodeAt(i)] >= 0) {
+                        if (!segment) {
+                            segment = [i, i];
+                            segments.push(segment);
+                        }
+                        segment[1] = i + 1;
+                    }
+                }
+                return segments.slice(0, 3);
+            };
+
+            // index of the segment under the caret, or the last one before it
+            const findSegmentIndex = function (segments, caret) {
+                let index = 0;
+                segments.forEach((segment, i) => {
+                    if (segment[0] <= caret) {
+                        index = i;
+                    }
+                });
+                return index;
+            };
+
+            const pad = function (number, length) {
+                return String(number).padStart(length, '0');
+            };
+
+            const toIsoTime = function (milliseconds) {
+                const step = timepicker.step;
+                let iso = pad(Math.floor(milliseconds / 3600000), 2) + ':' + pad(Math.floor(milliseconds / 60000) % 60, 2);
+                if (step && step < 60) {
+                    iso += ':' + pad(Math.floor(milliseconds / 1000) % 60, 2);
+                }
+                if (step && step < 1) {
+                    iso += '.' + pad(milliseconds % 1000, 3);
+                }
+                return iso;
+            };
+
+            const isWithinMinMax = function (milliseconds) {
+                return (!timepicker.min || parseIsoTimeToMilliseconds(timepicker.min) <= milliseconds)
+                    && (!timepicker.max || milliseconds <= parseIsoTimeToMilliseconds(timepicker.max));
+            };
+
+            // the next time from the given one when stepping up or down by the amount, optionally
+            // aligned to it, skipping the disabled times and wrapping around midnight
+            const stepTime = function (milliseconds, amount, up, align) {
+                let time = milliseconds + (up ? amount : -amount);
+                if (align) {
+                    time = up ? (Math.floor(milliseconds / amount) + 1) * amount : (Math.ceil(milliseconds / amount) - 1) * amount;
+                }
+                for (let i = 0; i < MILLISECONDS_PER_DAY / amount; i++) {
+                    time = (time + MILLISECONDS_PER_DAY) % MILLISECONDS_PER_DAY;
+                    if (timepicker.$connector.isTimeAllowed(time) && isWithinMinMax(time)) {
+                        return time;
+                    }
+                    time += up ? amount : -amount;
+                }
+                return milliseconds;
+            };
+
+            const syncSteppedTime = function () {
+                if (steppingSync) {
+                    clearTimeout(steppingSync);
+                    steppingSync = null;
+                }
+                if (steppedTime !== null) {
+                    const iso = toIsoTime(steppedTime);
+                    steppedTime = null;
+                    if (timepicker.value !== iso) {
+                        timepicker.value = iso;
+                    }
+                }
+            };
+
+            const onSteppingKeyDown = function (e) {
+                const keys = { ArrowUp: 1, ArrowDown: -1, PageUp: 2, PageDown: -2 };
+                const key = keys[e.key];
+                if (!timepicker.$connector.keyboardStepping || !key || e.altKey || e.ctrlKey || e.metaKey
+                    || timepicker.opened || timepicker.readonly || timepicker.disabled || !timepicker.inputElement) {
+                    return;
+                }
+                const input = timepicker.inputElement;
+                const segments = findSegments(input.value);
+                const index = findSegmentIndex(segments, input.selectionStart || 0);
+                const step = (timepicker.step || 3600) * 1000;
+                const unit = SEGMENT_UNITS[index];
+                let amount;
+                if (Math.abs(key) === 2) {
+                    // the next larger unit, or half a day for the hours to switch between am and pm
+                    amount = index === 0 ? 12 * 3600000 : SEGMENT_UNITS[index - 1];
+                } else {
+                    // the step when it divides the next larger unit more finely, eg. 15 minutes
+                    amount = step > unit && step < unit * 60 ? step : unit;
+                }
+
+                if (steppedTime === null) {
+                    steppedTime = timepicker.value ? parseIsoTimeToMilliseconds(timepicker.value) : 0;
+                }
+                steppedTime = stepTime(steppedTime, amount, key > 0, Math.abs(key) === 1);
+                const time = {
+                    hours: Math.floor(steppedTime / 3600000),
+                    minutes: Math.floor(steppedTime / 60000) % 60,
+                    seconds: Math.floor(steppedTime / 1000) % 60,
+                    milliseconds: steppedTime % 1000
+                };
+                input.value = timepicker.i18n.formatTime(time);
+                // keep the stepped segment selected for the next key press
+                const newSegment = findSegments(input.value)[index];
+                if (newSegment) {
+                    input.setSelectionRange(newSegment[0], newSegment[1]);
+                }
+                e.preventDefault();
+                e.stopPropagation();
+
+                // the value is synced only once the user stops stepping
+                if (steppingSync) {
+                    clearTimeout(steppingSync);
+                }
+                steppingSync = setTimeout(syncSteppedTime, STEPPING_SYNC_DELAY);
+            };
+
+            // capturing, so that the combo box does not open the dropdown for the arrow keys
+            timepicker.addEventListener('keydown', onSteppingKeyDown, true);
+            // leaving the field or committing with enter syncs the value right away
+            timepicker.addEventListener('focusout', syncSteppedTime);
+            timepicker.addEventListener('keydown', e => {
+                if (e.key === 'Enter') {
+                    syncSteppedTime();
+                }
+            }, true);
 
             const getAmPmString = function (locale, testTime) {
                 const testTimeString = testTime.toLocaleTimeString(locale);
@@ -66,74 +414,146 @@
                 return getAmPmString(locale, testAmTime);
             };
 
-            // map from unicode eastern arabic number characters to arabic numbers
-            const arabicDigitMap = {
-                '\\u0660': '0',
-                '\\u0661': '1',
-                '\\u0662': '2',
-                '\\u0663': '3',
-                '\\u0664': '4',
-                '\\u0665': '5',
-                '\\u0666': '6',
-                '\\u0667': '7',
-                '\\u0668': '8',
-                '\\u0669': '9'
-            };
-
-            // parses eastern arabic number characters to arabic numbers (0-9)
-            const anyNumberCharToArabicNumberReplacer = function (charsToReplace) {
-                return charsToReplace.replace(/[\u0660-\u0669]/g, function (char) {
-                    const unicode = '\\u0' + char.charCodeAt(0).toString(16);
-                    return arabicDigitMap[unicode];
-                });
-            };
-
-            const parseAnyCharsToInt = function (anyNumberChars) {
-                return parseInt(anyNumberCharToArabicNumberReplacer(anyNumberChars));
-            };
-
-            const parseMillisecondCharsToInt =function (millisecondChars) {
-                millisecondChars = anyNumberCharToArabicNumberReplacer(millisecondChars);
-                // digits are either .1 .01 or .001 so need to "shift"
-                if (millisecondChars.length === 1) {
-                    millisecondChars += "00";
-                } else if (millisecondChars.length === 2) {
-                    millisecondChars += "0";
+            // formats a number with the digits of the locale
+            const arabicNumberToLocaleDigits = function (number, length) {
+                const digits = String(number).padStart(length, '0');
+                const metadata = timepicker.$connector.localeMetadata;
+                const zero = metadata ? metadata.zeroDigit.charCodeAt(0) : 0x30;
+                if (zero === 0x30) {
+                    return digits;
+                }
+                let result = '';
+                for (let i = 0; i < digits.length; i++) {
+                    result += String.fromCharCode(zero + digits.charCodeAt(i) - 0x30);
                 }
-                return parseInt(millisecondChars);
+                return result;
             };
 
-            // detecting milliseconds from input, expects am/pm removed from end, eg. .0 or .00 or .000
-            const millisecondRegExp = /[[\.][\d\u0660-\u0669]{1,3}$/;
+            // milliseconds typed with one or two digits are tenths or hundredths, eg. .5 is 500
+            const parseMilliseconds = function (digits) {
+                return parseInt(digits.padEnd(3, '0').substring(0, 3), 10);
+            };
 
             // format time based on given pattern
             const formatTimeBasedOnPattern = function (timeToBeFormatted, pattern, language) {
-                return DateFns.format(timeToBeFormatted, pattern, { locale: DateFns.locales[language] });
+                return dateFns.format(timeToBeFormatted, pattern, { locale: dateFns.locales[language] });
             };   
 
             timepicker.$connector.setLocalePatternAndParsers = function (locale, pattern, parsers) {
                 let language = locale ? locale.split('-')[0] : 'enUS';
 
+                // the ES module build loads the date-fns locale when a pattern or parser first needs it
+                if (!dateFns.locales[language] && (pattern || (parsers && parsers.length))) {
+                    dateFns.loadLocale(language).then(() => {
+                        const connector = timepicker.$connector;
+                        if (dateFns.locales[language] && connector.locale === locale) {
+                            connector.setLocalePatternAndParsers(connector.locale, connector.pattern, connector.parsers);
+                        }
+                    });
+                }
+
                 // capture previous value if any
                 let previousValueObject;
                 if (timepicker.value && timepicker.value !== '') {
                     previousValueObject = timepicker.i18n.parseTime(timepicker.value);
                 }
 
-                // 1. 24 or 12 hour clock, if latter then what are the am/pm strings ?
-                const pmString = getPmString(locale);
-                const amString = getAmString(locale);
+                // the server provided format of the locale, when available there is no need to
+                // infer it from the browser formatted test times
+                const metadata = timepicker.$connector.localeMetadata;
 
-                // 2. What is the separator ?
-                let localeTimeString = testPmTime.toLocaleTimeString(locale);
-                // since the next regex picks first non-number-whitespace, need to discard possible PM from beginning (eg. chinese locale)
-                if (pmString && localeTimeString.startsWith(pmString)) {
-                    localeTimeString = localeTimeString.replace(pmString, '');
+                // 24 or 12 hour clock, if latter then what are the am/pm strings ?
+                let pmString;
+                let amString;
+                if (metadata) {
+                    pmString = metadata.hour12 ? metadata.pm : null;
+                    amString = metadata.hour12 ? metadata.am : null;
+                    registerDigits(metadata.zeroDigit.charCodeAt(0));
+                } else {
+                    pmString = getPmString(locale);
+                    amString = getAmString(locale);
                 }
-                const separator = localeTimeString.match(/[^\u0660-\u0669\s\d]/);
+                // do not do anything with am & pm if those are not used or if those are the same,
+                // as with locale bg-BG there is always ч. at the end of the time
+                const hasAmPm = !!pmString && !!amString && pmString !== amString;
+
+                // State of the incremental parser: the last scanned text and its runs of digits
+                // in the order of appearance. The combo box parses the input on every keystroke,
+                // so typing or deleting at the end only scans the changed characters.
+                let scannedText = '';
+                let runs = [];
 
-                // 3. regexp that allows to find the numbers with optional separator and continuing searching after it
-                const numbersRegExp = new RegExp('([\\d\\u0660-\\u0669]){1,2}(?:' + separator + ')?', 'g');
+                const scan = function (text) {
+                    let from = 0;
+                    if (text.startsWith(scannedText)) {
+                        from = scannedText.length;
+                    } else if (scannedText.startsWith(text)) {
+                        // characters removed from the end
+                        while (runs.length && runs[runs.length - 1].start >= text.length) {
+                            runs.pop();
+                        }
+                        const last = runs[runs.length - 1];
+                        if (last && last.end > text.length) {
+                            last.digits = last.digits.substring(0, text.length - last.start);
+                            last.end = text.length;
+                        }
+                        from = text.length;
+                    } else {
+                        runs = [];
+                    }
+                    let run = runs.length && runs[runs.length - 1].end === from ? runs[runs.length - 1] : null;
+                    for (let i = from; i < text.length; i++) {
+                        const value = digitValues[text.charCodeAt(i)];
+                        if (value < 0) {
+                            run = null;
+                            continue;
+                        }
+                        if (!run) {
+                            run = { start: i, end: i, digits: '', afterDot: i > 0 && text.charAt(i - 1) === '.' };
+                            runs.push(run);
+                        }
+                        run.digits += value;
+                        run.end = i + 1;
+                    }
+                    scannedText = text;
+                    return runs;
+                };
+
+                // splits the digits into hours, minutes and seconds of at most two digits each,
+                // eg. 11:30, 11.30 and 1130 all give ['11', '30'], milliseconds are only taken from
+                // the last run after a dot following the seconds, eg. 11:30:15.250
+                const getFields = function (text) {
+                    const fields = [];
+                    let milliseconds;
+                    scan(text);
+                    for (let r = 0; r < runs.length; r++) {
+                        const digits = runs[r].digits;
+                        if (fields.length === 3) {
+                            if (r === runs.length - 1 && runs[r].afterDot && digits.length <= 3) {
+                                milliseconds = digits;
+                            }
+                            break;
+                        }
+                        for (let i = 0; i < digits.length && fields.length < 3; i += 2) {
+                            fields.push(digits.substring(i, i + 2));
+                        }
+                    }
+                    fields.milliseconds = milliseconds;
+                    return fields;
+                };
+
+                // 24 hour clock hours of the typed hours, 12 am is 0
+                const toHours = function (hours, text) {
+                    if (hasAmPm) {
+                        if (hours === 12 && text.indexOf(amString) !== -1) {
+                            return 0;
+                        }
+                        if (hours !== 12 && text.indexOf(pmString) !== -1) {
+                            return hours + 12;
+                        }
+                    }
+                    return hours;
+                };
 
                 const includeSeconds = function () {
                     return timepicker.step && timepicker.step < 60;
@@ -187,15 +607,64 @@
                     return localeTimeString;
                 };
 
+                // formats the time with the parts of the locale's medium time format,
+                // leaving out the seconds and the literal before them when not needed
+                const formatTimeBasedOnMetadata = function (timeObject) {
+                    const parts = metadata.parts;
+                    const hours = timeObject.hours;
+                    let result = '';
+                    for (let i = 0; i < parts.length; i++) {
+                        const part = parts[i];
+                        if (part.charAt(0) === "'") {
+                            if (includeSeconds() || parts[i + 1] !== 'ss') {
+                                result += part.substring(1);
+                            }
+                            continue;
+                        }
+                        switch (part.charAt(0)) {
+                            case 'H':
+                                result += arabicNumberToLocaleDigits(hours, part.length);
+                                break;
+                            case 'k':
+                                result += arabicNumberToLocaleDigits(hours || 24, part.length);
+                                break;
+                            case 'h':
+                                result += arabicNumberToLocaleDigits(hours % 12 || 12, part.length);
+                                break;
+                            case 'K':
+                                result += arabicNumberToLocaleDigits(hours % 12, part.length);
+                                break;
+                            case 'm':
+                                result += arabicNumberToLocaleDigits(timeObject.minutes, 2);
+                                break;
+                            case 's':
+                                if (includeSeconds()) {
+                                    result += arabicNumberToLocaleDigits(timeObject.seconds || 0, 2);
+                                    if (includeMilliSeconds()) {
+                                        result += '.' + arabicNumberToLocaleDigits(timeObject.milliseconds || 0, 3);
+                                    }
+                                }
+                                break;
+                            case 'a':
+                                result += hours < 12 ? metadata.am : metadata.pm;
+                                break;
+                        }
+                    }
+                    return result;
+                };
+
                 let cachedTimeString;
                 let cachedTimeObject;
 
+                // the custom parsers followed by the formatting pattern
+                const allParsers = (parsers || []).concat(pattern ? [pattern] : []);
+
                 const parseBasedOnParsers = function (timeString, parsersCopy, language) {
                     var date;
                     var i;
                     for (i in parsersCopy) {
                         try {
-                            date = DateFns.parse(timeString, parsersCopy[i], new Date(), { locale: DateFns.locales[language] });
+                            date = dateFns.parse(timeString, parsersCopy[i], new Date(), { locale: dateFns.locales[language] });
                             if (date != 'Invalid Date') {
                                 break;
                             }
@@ -224,6 +693,8 @@
                             if(pattern) {
                                 timeToBeFormatted.setMilliseconds(timeObject.milliseconds !== undefined ? timeObject.milliseconds : 0)
                                 return formatTimeBasedOnPattern(timeToBeFormatted, pattern, language);
+                            } else if (metadata) {
+                                return formatTimeBasedOnMetadata(timeObject);
                             } else  {
                                 let localeTimeString = timeToBeFormatted.toLocaleTimeString(locale, getTimeFormatOptions());
                                 // milliseconds not part of the time format API
@@ -239,50 +710,18 @@
                         }
                         if (timeString) {
                             timeString = timepicker.$.comboBox.value;
-                                                       
-                            let parsersCopy = JSON.parse(JSON.stringify(parsers));
 
-                            if (pattern) {
-                                parsersCopy.push(pattern);
-                            }
-    
-                            if (parsersCopy.length > 0) {
-                               return parseBasedOnParsers(timeString, parsersCopy, language);
+                            if (allParsers.length > 0) {
+                               return parseBasedOnParsers(timeString, allParsers, language);
                             }
 
-                            const pm = timeString.search(pmString);
-                            const am = timeString.search(amString);
-                            let numbersOnlyTimeString = timeString.replace(amString, '').replace(pmString, '').trim();
-                            // reset regex to beginning or things can explode when the length of the input changes
-                            numbersRegExp.lastIndex = 0;
-                            let hours = numbersRegExp.exec(numbersOnlyTimeString);
-                            if (hours) {
-                                hours = parseAnyCharsToInt(hours[0].replace(separator, ''));
-                                // handle 12 am -> 0
-                                // do not do anything if am & pm are not used or if those are the same,
-                                // as with locale bg-BG there is always ч. at the end of the time
-                                if (pm !== am) {
-                                    if (hours === 12 && am !== -1) {
-                                        hours = 0;
-                                    } else {
-                                        hours += (pm !== -1 && hours !== 12 ? 12 : 0)
-                                    }
-                                }
-                                const minutes = numbersRegExp.exec(numbersOnlyTimeString);
-                                const seconds = minutes && numbersRegExp.exec(numbersOnlyTimeString);
-                                // reset to end or things can explode
-                                let milliseconds = seconds && includeMilliSeconds() && millisecondRegExp.exec(numbersOnlyTimeString);
-                                // handle case where last numbers are seconds and . is the separator (invalid regexp match)
-                                if (milliseconds && milliseconds['index'] <= seconds['index']) {
-                                    milliseconds = undefined;
-                                }
-                                // hours is a number at this point, others are either arrays or null
-                                // the string in [0] from the arrays includes the separator too
-                                cachedTimeObject = hours !== undefined && {
-                                    hours: hours,
-                                    minutes: minutes ? parseAnyCharsToInt(minutes[0].replace(separator, '')) : 0,
-                                    seconds: seconds ? parseAnyCharsToInt(seconds[0].replace(separator, '')) : 0,
-                                    milliseconds: minutes && seconds && milliseconds ? parseMillisecondCharsToInt(milliseconds[0].replace('.', '')) : 0
+                            const fields = getFields(timeString);
+                            if (fields.length) {
+                                cachedTimeObject = {
+                                    hours: toHours(parseInt(fields[0], 10), timeString),
+                                    minutes: fields.length > 1 ? parseInt(fields[1], 10) : 0,
+                                    seconds: fields.length > 2 ? parseInt(fields[2], 10) : 0,
+                                    milliseconds: fields.milliseconds && includeMilliSeconds() ? parseMilliseconds(fields.milliseconds) : 0
                                 };
                                 cachedTimeString = timeString;
                                 return cachedTimeObject;
@@ -293,6 +732,59 @@
                     }
                 };
 
+                // Times the partially typed text can still become, in ascending order, eg. 1 gives
+                // 1:00, 10:00, 11:00 ... on a 24 hour clock. Only the parser state of the text is
+                // used, the dropdown items are not searched.
+                timepicker.$connector.getCompletions = function (text, limit = 10) {
+                    const fields = text ? getFields(text) : [];
+                    if (!fields.length || allParsers.length > 0) {
+                        return [];
+                    }
+                    const stepSeconds = Math.min(timepicker.step || 3600, 3600);
+                    // the values a field can still become, a single typed digit can be the
+                    // whole value or the first of two digits
+                    const expand = function (digits, max) {
+                        const value = parseInt(digits, 10);
+                        const values = value <= max ? [value] : [];
+                        if (digits.length === 1) {
+                            for (let i = value * 10; i <= Math.min(value * 10 + 9, max); i++) {
+                                values.push(i);
+                            }
+                        }
+                        return values;
+                    };
+                    let hours = expand(fields[0], hasAmPm ? 12 : 23);
+                    if (hasAmPm) {
+                        const am = text.indexOf(amString) !== -1;
+                        const pm = text.indexOf(pmString) !== -1;
+                        hours = hours.filter(h => h > 0).reduce((result, h) => {
+                            if (am || !pm) {
+                                result.push(h % 12);
+                            }
+                            if (pm || !am) {
+                                result.push(h % 12 + 12);
+                            }
+                            return result;
+                        }, []);
+                    }
+                    // full hours until the minutes are typed
+                    let minutes = [0];
+                    if (fields.length > 1) {
+                        minutes = expand(fields[1], 59);
+                        const aligned = minutes.filter(m => (m * 60) % stepSeconds === 0);
+                        minutes = aligned.length ? aligned : minutes.slice(0, 1);
+                    }
+                    const seconds = fields.length > 2 ? parseInt(fields[2], 10) : 0;
+                    const completions = [];
+                    hours.sort((a, b) => a - b).forEach(h => minutes.forEach(m => {
+                        if (completions.length < limit
+                            && timepicker.$connector.isTimeAllowed(((h * 60 + m) * 60 + seconds) * 1000)) {
+                            completions.push({ hours: h, minutes: m, seconds: seconds, milliseconds: 0 });
+                        }
+                    }));
+                    return completions;
+                };
+
                 if (previousValueObject) {
                     when(() => timepicker.$, () => {
                         const newValue = timepicker.i18n.formatTime(previousValueObject);
@@ -305,16 +797,21 @@
                 }
             };
 
-            timepicker.$connector.setLocale = function (locale) {
-                try {
-                    // Check whether the locale is supported by the browser or not
-                    testPmTime.toLocaleTimeString(locale);
-                } catch (e) {
-                    locale = "en-US";
-                    // FIXME should do a callback for server to throw an exception ?
-                    throw new Error("vaadin-time-picker: The locale " + locale + " is not supported, falling back to default locale setting(en-US).");
+            timepicker.$connector.setLocale = function (locale, metadata) {
+                const connector = window.Vaadin.Flow.enhancedTimepickerConnector;
+                connector.storeLocaleMetadata(locale, metadata);
+                this.localeMetadata = connector.localeMetadata[locale] || null;
+                if (!this.localeMetadata) {
+                    try {
+                        // Check whether the locale is supported by the browser or not
+                        testPmTime.toLocaleTimeString(locale);
+                    } catch (e) {
+                        locale = "en-US";
+                        // FIXME should do a callback for server to throw an exception ?
+                        throw new Error("vaadin-time-picker: The locale " + locale + " is not supported, falling back to default locale setting(en-US).");
+                    }
                 }
-                
+
                 this.locale = locale;
                 this.setLocalePatternAndParsers(this.locale, this.pattern, this.parsers);
             };
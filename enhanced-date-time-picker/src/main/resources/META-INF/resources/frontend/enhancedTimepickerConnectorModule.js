@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+// ES module entry of the time picker connector. Only format and parse of date-fns are
+// bundled, and the locales are split into their own chunks, loaded when first used.
+import { format, parse } from 'date-fns';
+import './enhancedTimepickerConnector.js';
+
+// the date-fns locales by the language of the time picker locale, as looked up by the connector
+const localeLoaders = {
+    af: () => import('date-fns/locale/af'),
+    be: () => import('date-fns/locale/be'),
+    bn: () => import('date-fns/locale/bn'),
+    cs: () => import('date-fns/locale/cs'),
+    da: () => import('date-fns/locale/da'),
+    de: () => import('date-fns/locale/de'),
+    el: () => import('date-fns/locale/el'),
+    eo: () => import('date-fns/locale/eo'),
+    es: () => import('date-fns/locale/es'),
+    et: () => import('date-fns/locale/et'),
+    fi: () => import('date-fns/locale/fi'),
+    fr: () => import('date-fns/locale/fr'),
+    gl: () => import('date-fns/locale/gl'),
+    he: () => import('date-fns/locale/he'),
+    hu: () => import('date-fns/locale/hu'),
+    id: () => import('date-fns/locale/id'),
+    is: () => import('date-fns/locale/is'),
+    it: () => import('date-fns/locale/it'),
+    ja: () => import('date-fns/locale/ja'),
+    ko: () => import('date-fns/locale/ko'),
+    lt: () => import('date-fns/locale/lt'),
+    lv: () => import('date-fns/locale/lv'),
+    nb: () => import('date-fns/locale/nb'),
+    nl: () => import('date-fns/locale/nl'),
+    nn: () => import('date-fns/locale/nn'),
+    pl: () => import('date-fns/locale/pl'),
+    pt: () => import('date-fns/locale/pt'),
+    ro: () => import('date-fns/locale/ro'),
+    ru: () => import('date-fns/locale/ru'),
+    sk: () => import('date-fns/locale/sk'),
+    sv: () => import('date-fns/locale/sv'),
+    th: () => import('date-fns/locale/th'),
+    tr: () => import('date-fns/locale/tr'),
+    ug: () => import('date-fns/locale/ug'),
+    uk: () => import('date-fns/locale/uk'),
+    vi: () => import('date-fns/locale/vi')
+};
+
+const locales = {};
+
+// resolves once the locale of the language is in locales, languages without
+// a date-fns locale use the default en-US locale of date-fns
+const loadLocale = function (language) {
+    const loader = localeLoaders[language];
+    if (!loader || locales[language]) {
+        return Promise.resolve();
+    }
+    return loader().then(module => {
+        locales[language] = module.default;
+    });
+};
+
+// handed to the connectors instead of a global, before any picker initializes its connector
+window.Vaadin.Flow.enhancedTimepickerConnector.dateFns = { format, parse, locales, loadLocale };
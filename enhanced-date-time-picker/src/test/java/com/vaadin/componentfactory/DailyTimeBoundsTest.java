@@ -0,0 +1,128 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.junit.Test;
+
+import elemental.json.JsonObject;
+
+public class DailyTimeBoundsTest {
+
+    // a Monday
+    private static final LocalDate MONDAY = LocalDate.of(2021, 6, 28);
+    private static final LocalDate SATURDAY = MONDAY.plusDays(5);
+
+    private final DailyTimeBounds bounds = DailyTimeBounds.builder()
+            .setDefault(LocalTime.of(8, 0), LocalTime.of(18, 0))
+            .setDayOfWeek(DayOfWeek.SATURDAY, LocalTime.of(10, 0),
+                    LocalTime.of(14, 0))
+            .setDate(SATURDAY.plusWeeks(1), null, LocalTime.of(12, 0))
+            .build();
+
+    @Test
+    public void getMinMax_noSpecificBounds_defaultBounds() {
+        assertEquals(LocalTime.of(8, 0), bounds.getMin(MONDAY));
+        assertEquals(LocalTime.of(18, 0), bounds.getMax(MONDAY));
+    }
+
+    @Test
+    public void getMinMax_dayOfWeekBounds_precedeDefault() {
+        assertEquals(LocalTime.of(10, 0), bounds.getMin(SATURDAY));
+        assertEquals(LocalTime.of(14, 0), bounds.getMax(SATURDAY));
+    }
+
+    @Test
+    public void getMinMax_dateBounds_precedeDayOfWeek() {
+        LocalDate nextSaturday = SATURDAY.plusWeeks(1);
+
+        // the unconstrained minimum of the date is not filled in from the
+        // day of week or the default bounds
+        assertNull(bounds.getMin(nextSaturday));
+        assertEquals(LocalTime.of(12, 0), bounds.getMax(nextSaturday));
+        assertEquals(LocalTime.of(10, 0),
+                bounds.getMin(nextSaturday.plusWeeks(1)));
+    }
+
+    @Test
+    public void getMinMax_emptyTable_unconstrained() {
+        DailyTimeBounds empty = DailyTimeBounds.builder().build();
+
+        assertNull(empty.getMin(MONDAY));
+        assertNull(empty.getMax(MONDAY));
+        assertTrue(empty.isWithinBounds(MONDAY.atTime(LocalTime.MAX)));
+    }
+
+    @Test
+    public void isWithinBounds_boundsInclusive() {
+        assertFalse(bounds.isWithinBounds(MONDAY.atTime(7, 59)));
+        assertTrue(bounds.isWithinBounds(MONDAY.atTime(8, 0)));
+        assertTrue(bounds.isWithinBounds(MONDAY.atTime(18, 0)));
+        assertFalse(bounds.isWithinBounds(MONDAY.atTime(18, 0, 1)));
+        assertFalse(bounds.isWithinBounds(SATURDAY.atTime(9, 0)));
+        assertTrue(bounds.isWithinBounds(
+                LocalDateTime.of(SATURDAY.plusWeeks(1), LocalTime.MIDNIGHT)));
+    }
+
+    @Test
+    public void builder_laterBoundsOfSameKey_replaceEarlier() {
+        DailyTimeBounds replaced = DailyTimeBounds.builder()
+                .setDayOfWeek(DayOfWeek.MONDAY, LocalTime.of(9, 0), null)
+                .setDayOfWeek(DayOfWeek.MONDAY, LocalTime.of(11, 0), null)
+                .build();
+
+        assertEquals(LocalTime.of(11, 0), replaced.getMin(MONDAY));
+    }
+
+    @Test
+    public void builder_changedAfterBuild_tableUnchanged() {
+        DailyTimeBounds.Builder builder = DailyTimeBounds.builder()
+                .setDate(MONDAY, LocalTime.of(9, 0), null);
+        DailyTimeBounds built = builder.build();
+        builder.setDate(MONDAY, LocalTime.of(11, 0), null)
+                .setDayOfWeek(DayOfWeek.TUESDAY, LocalTime.NOON, null);
+
+        assertEquals(LocalTime.of(9, 0), built.getMin(MONDAY));
+        assertNull(built.getMin(MONDAY.plusDays(1)));
+    }
+
+    @Test
+    public void toJson_isoKeysAndEmptyUnconstrainedBounds() {
+        JsonObject json = bounds.toJson();
+
+        assertEquals("[\"08:00\",\"18:00\"]",
+                json.getArray("default").toJson());
+        assertEquals("[\"10:00\",\"14:00\"]",
+                json.getObject("daysOfWeek").getArray("6").toJson());
+        assertEquals("[\"\",\"12:00\"]", json.getObject("dates")
+                .getArray(SATURDAY.plusWeeks(1).toString()).toJson());
+    }
+}
@@ -0,0 +1,94 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.componentfactory.EnhancedDatePicker.DatePickerI18n;
+import com.vaadin.flow.component.UI;
+
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+
+public class DatePickerI18nRegistryTest {
+
+    private DatePickerI18nRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = DatePickerI18nRegistry.get(new UI());
+    }
+
+    @Test
+    public void get_sameUI_sameRegistry() {
+        UI ui = new UI();
+        assertSame(DatePickerI18nRegistry.get(ui),
+                DatePickerI18nRegistry.get(ui));
+    }
+
+    @Test
+    public void intern_equalContent_sameKey() {
+        assertEquals(registry.intern(i18n("today")),
+                registry.intern(i18n("today")));
+        assertNotEquals(registry.intern(i18n("today")),
+                registry.intern(i18n("heute")));
+    }
+
+    @Test
+    public void takeI18n_sentOnce() {
+        int key = registry.intern(i18n("today"));
+        assertEquals("today",
+                ((JsonObject) registry.takeI18n(key)).getString("today"));
+        assertEquals(JsonType.NULL, registry.takeI18n(key).getType());
+        assertEquals("today", registry.getI18n(key).getString("today"));
+    }
+
+    @Test
+    public void intern_beyondMaxSize_leastRecentlyInternedReleased() {
+        int first = registry.intern(i18n("today 0"));
+        int second = registry.intern(i18n("today 1"));
+        registry.takeI18n(second);
+        for (int i = 2; i < DatePickerI18nRegistry.MAX_SIZE; i++) {
+            registry.intern(i18n("today " + i));
+        }
+        // keeps the first content in use
+        registry.intern(i18n("today 0"));
+        registry.intern(i18n("today " + DatePickerI18nRegistry.MAX_SIZE));
+
+        assertEquals(first, registry.intern(i18n("today 0")));
+        int again = registry.intern(i18n("today 1"));
+        assertNotEquals(second, again);
+        assertEquals("today 1",
+                ((JsonObject) registry.takeI18n(again)).getString("today"));
+    }
+
+    private static DatePickerI18n i18n(String today) {
+        DatePickerI18n i18n = new DatePickerI18n();
+        i18n.setToday(today);
+        return i18n;
+    }
+}
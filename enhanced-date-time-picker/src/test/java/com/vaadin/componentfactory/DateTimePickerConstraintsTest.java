@@ -0,0 +1,169 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+
+import javax.validation.constraints.Future;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Past;
+
+import org.junit.Test;
+
+public class DateTimePickerConstraintsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2021, 6, 28, 9,
+            30);
+
+    static class Base {
+        @NotNull
+        private LocalDateTime created;
+    }
+
+    static class Booking extends Base {
+        @NotNull
+        private LocalDateTime start;
+
+        @Within(hours = 48)
+        private LocalDateTime end;
+
+        @Past
+        private LocalDateTime checkedIn;
+
+        @Future
+        private LocalDateTime reminder;
+
+        @Within(hours = 24, past = true)
+        private LocalDateTime lastVisit;
+
+        @NotNull
+        private String comment;
+
+        private LocalDateTime updated;
+
+        @Future
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        @Within(hours = 12)
+        public LocalDateTime getReminder() {
+            return reminder;
+        }
+
+        @Past
+        public LocalDateTime getLastVisit() {
+            return lastVisit;
+        }
+    }
+
+    @Test
+    public void of_unannotatedProperty_noConstraints() {
+        DateTimePickerConstraints constraints = DateTimePickerConstraints
+                .of(Booking.class, "updated");
+        assertFalse(constraints.isRequired());
+        assertTrue(constraints.accepts(NOW.minusYears(10), NOW));
+        assertTrue(constraints.accepts(NOW.plusYears(10), NOW));
+    }
+
+    @Test
+    public void of_otherPropertyType_ignored() {
+        assertFalse(DateTimePickerConstraints.of(Booking.class, "comment")
+                .isRequired());
+    }
+
+    @Test
+    public void of_superclassField_read() {
+        assertTrue(DateTimePickerConstraints.of(Booking.class, "created")
+                .isRequired());
+    }
+
+    @Test
+    public void of_within_boundsInFuture() {
+        DateTimePickerConstraints constraints = DateTimePickerConstraints
+                .of(Booking.class, "end");
+        assertFalse(constraints.isRequired());
+        assertTrue(constraints.accepts(NOW, NOW));
+        assertTrue(constraints.accepts(NOW.plusHours(48), NOW));
+        assertFalse(constraints.accepts(NOW.minusMinutes(1), NOW));
+        assertFalse(constraints.accepts(NOW.plusHours(48).plusMinutes(1),
+                NOW));
+    }
+
+    @Test
+    public void of_past_maximumNow() {
+        DateTimePickerConstraints constraints = DateTimePickerConstraints
+                .of(Booking.class, "checkedIn");
+        assertTrue(constraints.accepts(NOW.minusYears(1), NOW));
+        assertFalse(constraints.accepts(NOW.plusMinutes(1), NOW));
+    }
+
+    @Test
+    public void of_fieldAndGetter_requiredAndBoundsMerged() {
+        DateTimePickerConstraints constraints = DateTimePickerConstraints
+                .of(Booking.class, "start");
+        assertTrue(constraints.isRequired());
+        assertTrue(constraints.accepts(NOW.plusYears(1), NOW));
+        assertFalse(constraints.accepts(NOW.minusMinutes(1), NOW));
+    }
+
+    @Test
+    public void of_fieldAndGetterBounds_narrowerBoundsWin() {
+        // @Future on the field, within the next 12 hours on the getter
+        DateTimePickerConstraints constraints = DateTimePickerConstraints
+                .of(Booking.class, "reminder");
+        assertTrue(constraints.accepts(NOW.plusHours(12), NOW));
+        assertFalse(constraints.accepts(NOW.plusHours(12).plusMinutes(1),
+                NOW));
+        assertFalse(constraints.accepts(NOW.minusMinutes(1), NOW));
+    }
+
+    @Test
+    public void of_pastWithinAndPast_lastHours() {
+        DateTimePickerConstraints constraints = DateTimePickerConstraints
+                .of(Booking.class, "lastVisit");
+        assertTrue(constraints.accepts(NOW.minusHours(24), NOW));
+        assertFalse(constraints.accepts(NOW.minusHours(24).minusMinutes(1),
+                NOW));
+        assertFalse(constraints.accepts(NOW.plusMinutes(1), NOW));
+    }
+
+    @Test
+    public void accepts_nowTruncatedToMinutes() {
+        // the picker shows 9:30 as its minimum until 9:31
+        DateTimePickerConstraints constraints = DateTimePickerConstraints
+                .of(Booking.class, "end");
+        assertTrue(constraints.accepts(NOW, NOW.plusSeconds(59)));
+        assertFalse(constraints.accepts(NOW.plusHours(48).plusSeconds(1),
+                NOW.plusSeconds(59)));
+    }
+
+    @Test
+    public void of_sameClass_readOnce() {
+        assertSame(DateTimePickerConstraints.of(Booking.class, "start"),
+                DateTimePickerConstraints.of(Booking.class, "start"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.openjdk.jol.info.GraphLayout;
+
+import com.vaadin.componentfactory.EnhancedDatePicker.DatePickerI18n;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * Guards the heap retained per {@link EnhancedDateTimePicker} in a session,
+ * for the configurations forms commonly use.
+ * <p>
+ * Each test attaches a number of pickers to a UI of a mocked session, runs a
+ * round trip so that pending client invocations and changes are flushed, and
+ * divides the growth of the object graph of the UI, as measured by JOL, by the
+ * number of pickers. Objects shared by the pickers, such as a common i18n
+ * object, are only counted once. The size of a plain {@link EnhancedDatePicker}
+ * measured the same way is subtracted, so that the budgets cover the state of
+ * this add-on and not the date picker of the enhanced-date-picker dependency.
+ * <p>
+ * A test fails when a picker retains more than its budget, which has some
+ * headroom over the size measured when the budget was set; raise it only for
+ * a change that needs the memory. JOL needs the {@code jol.magicFieldOffset}
+ * system property, set in the surefire configuration, for the lambdas the
+ * pickers retain, which are hidden classes.
+ */
+public class EnhancedDateTimePickerRetainedHeapTest {
+
+    private static final int PICKERS = 50;
+
+    private static final LocalDateTime VALUE = LocalDateTime.of(2021, 6, 28,
+            9, 30);
+
+    private static long datePickerSize;
+
+    private UI ui;
+
+    @Before
+    public void setUp() {
+        if (datePickerSize == 0) {
+            datePickerSize = retainedSize(EnhancedDatePicker::new);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+
+    @Test
+    public void plainPicker_withinBudget() {
+        assertWithinBudget("plain", 10_000, EnhancedDateTimePicker::new);
+    }
+
+    @Test
+    public void pickerWithValue_withinBudget() {
+        assertWithinBudget("with value", 10_500, () -> {
+            EnhancedDateTimePicker picker = new EnhancedDateTimePicker();
+            picker.setValue(VALUE);
+            return picker;
+        });
+    }
+
+    @Test
+    public void patternedPicker_withinBudget() {
+        assertWithinBudget("patterned", 14_000, () -> {
+            EnhancedDateTimePicker picker = new EnhancedDateTimePicker();
+            picker.setDatePattern("dd.MM.yyyy");
+            picker.setDateParsers("dd.MM.yy", "ddMMyyyy", "yyyy-MM-dd");
+            picker.setTimePattern("HH.mm");
+            picker.setTimeParsers("HHmm", "HH:mm");
+            return picker;
+        });
+    }
+
+    @Test
+    public void localizedPicker_withinBudget() {
+        DatePickerI18n i18n = new DatePickerI18n();
+        i18n.setMonthNames(Arrays.asList("tammikuu", "helmikuu", "maaliskuu",
+                "huhtikuu", "toukokuu", "kesäkuu", "heinäkuu", "elokuu",
+                "syyskuu", "lokakuu", "marraskuu", "joulukuu"));
+        i18n.setWeekdays(Arrays.asList("sunnuntai", "maanantai", "tiistai",
+                "keskiviikko", "torstai", "perjantai", "lauantai"));
+        i18n.setWeekdaysShort(
+                Arrays.asList("su", "ma", "ti", "ke", "to", "pe", "la"));
+        i18n.setFirstDayOfWeek(1);
+        i18n.setToday("Tänään");
+        i18n.setCancel("Peruuta");
+        Locale locale = new Locale("fi", "FI");
+        assertWithinBudget("localized", 14_500, () -> {
+            EnhancedDateTimePicker picker = new EnhancedDateTimePicker();
+            picker.setLocale(locale);
+            picker.setDatePickerI18n(i18n);
+            return picker;
+        });
+    }
+
+    @Test
+    public void constrainedPicker_withinBudget() {
+        assertWithinBudget("min/max", 11_000, () -> {
+            EnhancedDateTimePicker picker = new EnhancedDateTimePicker();
+            picker.setStep(Duration.ofMinutes(15));
+            picker.setMin(VALUE.minusDays(7));
+            picker.setMax(VALUE.plusDays(7));
+            picker.setValue(VALUE);
+            return picker;
+        });
+    }
+
+    private void assertWithinBudget(String configuration, long budget,
+            Supplier<EnhancedDateTimePicker> factory) {
+        long perPicker = retainedSize(factory) - datePickerSize;
+        assertTrue(String.format(
+                "A %s picker retains %d bytes besides its date picker, over "
+                        + "its budget of %d bytes",
+                configuration, perPicker, budget), perPicker <= budget);
+    }
+
+    private long retainedSize(Supplier<? extends Component> factory) {
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        Mockito.when(session.hasLock()).thenReturn(true);
+        ui = new UI();
+        ui.getInternals().setSession(session);
+        UI.setCurrent(ui);
+        roundTrip();
+        long before = GraphLayout.parseInstance(ui).totalSize();
+        for (int i = 0; i < PICKERS; i++) {
+            ui.add(factory.get());
+        }
+        roundTrip();
+        return (GraphLayout.parseInstance(ui).totalSize() - before) / PICKERS;
+    }
+
+    private void roundTrip() {
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        ui.getInternals().dumpPendingJavaScriptInvocations();
+        ui.getInternals().getStateTree().collectChanges(change -> {
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+import com.vaadin.flow.server.VaadinSession;
+
+import elemental.json.Json;
+
+public class EnhancedDateTimeRangePickerTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2021, 6, 30, 9,
+            0);
+
+    private UI ui;
+    private EnhancedDateTimeRangePicker field;
+    private EnhancedDateTimePicker start;
+    private EnhancedDateTimePicker end;
+
+    @Before
+    public void setUp() {
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        Mockito.when(session.hasLock()).thenReturn(true);
+        ui = new UI();
+        ui.getInternals().setSession(session);
+        UI.setCurrent(ui);
+        field = new EnhancedDateTimeRangePicker();
+        List<EnhancedDateTimePicker> ends = field.getChildren()
+                .map(EnhancedDateTimePicker.class::cast)
+                .collect(Collectors.toList());
+        start = ends.get(0);
+        end = ends.get(1);
+        ui.add(field);
+    }
+
+    @After
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+
+    @Test
+    public void setValue_endsSetAndTruncatedToMilliseconds() {
+        field.setValue(new DateTimeRange(NINE.withNano(1_234_567),
+                NINE.plusHours(2)));
+        assertEquals(NINE.withNano(1_000_000), field.getValue().getStart());
+        assertEquals(NINE.withNano(1_000_000), start.getValue());
+        assertEquals(NINE.plusHours(2), end.getValue());
+    }
+
+    @Test
+    public void setValue_emptyRange_null() {
+        field.setValue(new DateTimeRange(null, null));
+        assertNull(field.getValue());
+    }
+
+    @Test
+    public void changeOfEnds_combinedIntoOneValue() {
+        start.setValue(NINE);
+        end.setValue(NINE.plusHours(1));
+        fireChange();
+        assertEquals(new DateTimeRange(NINE, NINE.plusHours(1)),
+                field.getValue());
+    }
+
+    @Test
+    public void validate_requiredButIncomplete_invalid() {
+        field.setRequiredIndicatorVisible(true);
+        field.setValue(new DateTimeRange(NINE, null));
+        assertTrue(field.isInvalid());
+        field.setValue(new DateTimeRange(NINE, NINE.plusHours(1)));
+        assertFalse(field.isInvalid());
+    }
+
+    @Test
+    public void validate_endOutOfMinAndMax_invalid() {
+        field.setMin(NINE);
+        field.setMax(NINE.plusHours(8));
+        field.setValue(new DateTimeRange(NINE, NINE.plusHours(9)));
+        assertTrue(field.isInvalid());
+        field.setValue(new DateTimeRange(NINE.minusHours(1), NINE));
+        assertTrue(field.isInvalid());
+        field.setValue(new DateTimeRange(NINE, NINE.plusHours(8)));
+        assertFalse(field.isInvalid());
+    }
+
+    @Test
+    public void validate_reversed_invalid() {
+        field.setValue(new DateTimeRange(NINE.plusHours(1), NINE));
+        assertTrue(field.isInvalid());
+    }
+
+    @Test
+    public void constraints_rangeBoundsAndOtherEnd() {
+        field.setMin(NINE);
+        field.setMax(NINE.plusHours(9));
+        field.setValue(new DateTimeRange(NINE.plusHours(1), NINE.plusHours(3)));
+        assertEquals(NINE, start.getMin());
+        assertEquals(NINE.plusHours(3), start.getMax());
+        assertEquals(NINE.plusHours(1), end.getMin());
+        assertEquals(NINE.plusHours(9), end.getMax());
+    }
+
+    @Test
+    public void constraints_followChangedEnd() {
+        field.setMax(NINE.plusHours(9));
+        field.setValue(new DateTimeRange(NINE, NINE.plusHours(3)));
+        end.setValue(NINE.plusHours(2));
+        assertEquals(NINE.plusHours(2), start.getMax());
+        end.setValue(null);
+        assertEquals(NINE.plusHours(9), start.getMax());
+    }
+
+    @Test
+    public void constraints_otherEndOutsideRangeBounds_rangeBoundKept() {
+        field.setMin(NINE);
+        field.setValue(new DateTimeRange(NINE.minusHours(1), null));
+        assertEquals(NINE, end.getMin());
+        assertNull(start.getMax());
+    }
+
+    private void fireChange() {
+        field.getElement().getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(field.getElement(), "change",
+                        Json.createObject()));
+    }
+}
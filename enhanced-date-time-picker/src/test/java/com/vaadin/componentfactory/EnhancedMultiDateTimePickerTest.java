@@ -0,0 +1,176 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+import com.vaadin.flow.server.VaadinSession;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+public class EnhancedMultiDateTimePickerTest {
+
+    private UI ui;
+    private EnhancedMultiDateTimePicker field;
+
+    @Before
+    public void setUp() {
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        Mockito.when(session.hasLock()).thenReturn(true);
+        ui = new UI();
+        ui.getInternals().setSession(session);
+        UI.setCurrent(ui);
+        field = new EnhancedMultiDateTimePicker(ZoneOffset.UTC);
+        ui.add(field);
+        roundTrip();
+    }
+
+    @After
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+
+    @Test
+    public void setValue_sortedWithoutDuplicates() {
+        field.setValue(new long[] { 30, 10, 20, 10 });
+        assertArrayEquals(new long[] { 10, 20, 30 }, field.getValue());
+    }
+
+    @Test
+    public void getValue_copy() {
+        field.setValue(new long[] { 10, 20 });
+        field.getValue()[0] = 15;
+        assertArrayEquals(new long[] { 10, 20 }, field.getValue());
+    }
+
+    @Test
+    public void addRemove_keepOrder() {
+        assertTrue(field.add(Instant.ofEpochMilli(20)));
+        assertTrue(field.add(Instant.ofEpochMilli(10)));
+        assertFalse(field.add(Instant.ofEpochMilli(20)));
+        assertTrue(field.remove(Instant.ofEpochMilli(10)));
+        assertFalse(field.remove(Instant.ofEpochMilli(10)));
+        assertArrayEquals(new long[] { 20 }, field.getValue());
+    }
+
+    @Test
+    public void countBetween_endExclusive() {
+        field.setValue(new long[] { 10, 20, 30 });
+        assertEquals(2, field.countBetween(Instant.ofEpochMilli(10),
+                Instant.ofEpochMilli(30)));
+        assertEquals(0, field.countBetween(Instant.ofEpochMilli(31),
+                Instant.ofEpochMilli(40)));
+        assertTrue(field.containsAnyBetween(Instant.ofEpochMilli(15),
+                Instant.ofEpochMilli(21)));
+    }
+
+    @Test
+    public void attach_sendsWholeList() {
+        field.setValue(new long[] { 10, 20 });
+        ui.remove(field);
+        ui.add(field);
+        assertEquals(List.of("reset [10,20]"), roundTrip());
+    }
+
+    @Test
+    public void valueChange_sendsDifference() {
+        field.setValue(new long[] { 10, 20, 30 });
+        roundTrip();
+        field.setValue(new long[] { 5, 20, 30, 40 });
+        assertEquals(List.of("remove [10]", "add [5,40]"), roundTrip());
+    }
+
+    @Test
+    public void valueChangedBack_sendsNothing() {
+        field.setValue(new long[] { 10, 20 });
+        roundTrip();
+        field.add(Instant.ofEpochMilli(30));
+        field.remove(Instant.ofEpochMilli(30));
+        assertEquals(List.of(), roundTrip());
+    }
+
+    @Test
+    public void removeInBrowser_removedFromValue() {
+        field.setValue(new long[] { 10, 20 });
+        roundTrip();
+        fireRemove(10);
+        assertArrayEquals(new long[] { 20 }, field.getValue());
+        assertEquals(List.of(), roundTrip());
+    }
+
+    @Test
+    public void removeInBrowser_readOnly_sentBack() {
+        field.setValue(new long[] { 10, 20 });
+        field.setReadOnly(true);
+        roundTrip();
+        fireRemove(10);
+        assertArrayEquals(new long[] { 10, 20 }, field.getValue());
+        assertEquals(List.of("add [10]"), roundTrip());
+    }
+
+    private void fireRemove(long value) {
+        Element list = field.getElement().getChildren()
+                .filter(child -> "timestamps".equals(child.getAttribute("part")))
+                .findFirst().get();
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.detail.value", value);
+        list.getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(list, "timestamp-remove", eventData));
+    }
+
+    // the calls of the connector functions sending timestamps, eg.
+    // "add [5,40]"
+    private List<String> roundTrip() {
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        return ui.getInternals().dumpPendingJavaScriptInvocations().stream()
+                .map(PendingJavaScriptInvocation::getInvocation)
+                .filter(invocation -> invocation.getExpression()
+                        .matches(".*\\$connector\\.(reset|add|remove)\\(.*"))
+                .map(invocation -> invocation.getExpression()
+                        .replaceAll(".*\\$connector\\.(\\w+)\\(.*", "$1")
+                        + " " + invocation.getParameters().stream()
+                                .filter(JsonArray.class::isInstance)
+                                .map(JsonArray.class::cast).findFirst()
+                                .get().toJson())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,113 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.VaadinSession;
+
+public class RelativeBoundsSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2021, 6, 28, 9,
+            30);
+
+    private UI ui;
+
+    @Before
+    public void setUp() {
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        Mockito.when(session.hasLock()).thenReturn(true);
+        ui = new UI();
+        ui.getInternals().setSession(session);
+        UI.setCurrent(ui);
+        RelativeBoundsScheduler.get(ui).setClock(
+                Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @After
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+
+    @Test
+    public void now_attachedPicker_clockOfItsUI() {
+        EnhancedDateTimePicker picker = new EnhancedDateTimePicker();
+        ui.add(picker);
+        UI.setCurrent(null);
+        assertEquals(NOW, RelativeBoundsScheduler.now(picker));
+    }
+
+    @Test
+    public void now_detachedPicker_clockOfCurrentUI() {
+        assertEquals(NOW,
+                RelativeBoundsScheduler.now(new EnhancedDateTimePicker()));
+    }
+
+    @Test
+    public void relativeMin_detachedDateTimePicker_resolvedWithClockOfCurrentUI() {
+        EnhancedDateTimePicker picker = new EnhancedDateTimePicker();
+        picker.setRelativeMin(Relative.now().plusHours(1));
+        assertEquals(NOW.plusHours(1), picker.getMin());
+    }
+
+    @Test
+    public void relativeMax_detachedTimePicker_resolvedWithClockOfCurrentUI() {
+        EnhancedTimePicker picker = new EnhancedTimePicker();
+        picker.setRelativeMax(Relative.now().plus(Duration.ofMinutes(15)));
+        assertEquals(LocalTime.of(9, 45), picker.getMax());
+    }
+
+    @Test
+    public void updateBound_sameBound_notApplied() {
+        List<LocalDateTime> applied = new ArrayList<>();
+        assertFalse(RelativeBoundsScheduler.updateBound(Relative.now(),
+                relative -> relative.resolve(NOW), NOW, applied::add));
+        assertFalse(RelativeBoundsScheduler.updateBound(null,
+                relative -> relative.resolve(NOW), null, applied::add));
+        assertTrue(applied.isEmpty());
+    }
+
+    @Test
+    public void updateBound_otherBound_applied() {
+        List<LocalDateTime> applied = new ArrayList<>();
+        assertTrue(RelativeBoundsScheduler.updateBound(Relative.now(),
+                relative -> relative.resolve(NOW), NOW.minusMinutes(1),
+                applied::add));
+        assertEquals(List.of(NOW), applied);
+    }
+}
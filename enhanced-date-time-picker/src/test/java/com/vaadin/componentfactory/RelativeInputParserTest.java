@@ -0,0 +1,118 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+
+public class RelativeInputParserTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2021, 6, 30, 9,
+            30, 45);
+
+    private final RelativeInputParser parser = RelativeInputParser
+            .of(Locale.US);
+
+    /**
+     * Checks the cases of relative-input-cases.json, which conformance.js of
+     * the connector benchmarks checks against the connector as well.
+     */
+    @Test
+    public void parse_sharedCases() throws IOException {
+        JsonObject json;
+        try (InputStream in = getClass()
+                .getResourceAsStream("relative-input-cases.json")) {
+            json = Json.parse(
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        LocalDateTime now = LocalDateTime.parse(json.getString("now"));
+        JsonObject cases = json.getObject("cases");
+        for (String languageTag : cases.keys()) {
+            RelativeInputParser localeParser = RelativeInputParser
+                    .of(Locale.forLanguageTag(languageTag));
+            JsonArray localeCases = cases.getArray(languageTag);
+            for (int i = 0; i < localeCases.length(); i++) {
+                JsonArray testCase = localeCases.getArray(i);
+                String text = testCase.getString(0);
+                String expected = testCase.get(1).getType() == JsonType.NULL
+                        ? null
+                        : testCase.getString(1);
+                assertEquals(languageTag + " " + text, expected,
+                        localeParser.parse(text, now).map(Object::toString)
+                                .orElse(null));
+            }
+        }
+    }
+
+    @Test
+    public void parse_now_truncatedToMinutes() {
+        assertEquals(Optional.of(LocalDateTime.of(2021, 6, 30, 9, 30)),
+                parser.parse("now", NOW));
+    }
+
+    @Test
+    public void parse_offsetsOnly_relativeToNow() {
+        assertEquals(Optional.of(LocalDateTime.of(2021, 7, 1, 10, 0)),
+                parser.parse("+1d +30 mins", NOW));
+    }
+
+    @Test
+    public void parse_timeAlone_leftToTimePicker() {
+        assertFalse(parser.parse("9:30", NOW).isPresent());
+        assertFalse(parser.parse("9pm", NOW).isPresent());
+    }
+
+    @Test
+    public void parse_ambiguousAbbreviation_notParsed() {
+        // today, tomorrow, tuesday and thursday
+        assertFalse(parser.parse("t 9", NOW).isPresent());
+    }
+
+    @Test
+    public void parse_weekday_todayIncludedUnlessNext() {
+        assertEquals(Optional.of(LocalDateTime.of(2021, 6, 30, 0, 0)),
+                parser.parse("wednesday", NOW));
+        assertEquals(Optional.of(LocalDateTime.of(2021, 7, 7, 0, 0)),
+                parser.parse("next wednesday", NOW));
+    }
+
+    @Test
+    public void of_sameLanguageAndCountry_sameParser() {
+        assertSame(RelativeInputParser.of(Locale.US), RelativeInputParser
+                .of(new Locale("en", "US", "POSIX")));
+    }
+}
@@ -0,0 +1,150 @@
+package com.vaadin.componentfactory;
+
+/*-
+ * #%L
+ * EnhancedDateTimePicker
+ * %%
+ * Copyright (C) 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalTime;
+
+import org.junit.Test;
+
+public class TimeIntervalSetTest {
+
+    @Test
+    public void builder_overlappingAndAdjacentIntervals_merged() {
+        TimeIntervalSet set = TimeIntervalSet.builder()
+                .add(LocalTime.of(13, 0), LocalTime.of(14, 0))
+                .add(LocalTime.of(9, 0), LocalTime.of(11, 0))
+                .add(LocalTime.of(10, 30), LocalTime.of(12, 0))
+                .add(LocalTime.of(12, 0), LocalTime.of(12, 30)).build();
+
+        assertEquals(2, set.getIntervalCount());
+        assertEquals(TimeIntervalSet.builder()
+                .add(LocalTime.of(9, 0), LocalTime.of(12, 30))
+                .add(LocalTime.of(13, 0), LocalTime.of(14, 0)).build(), set);
+    }
+
+    @Test
+    public void builder_containedInterval_keepsOuterEnd() {
+        TimeIntervalSet set = TimeIntervalSet.builder()
+                .add(LocalTime.of(8, 0), LocalTime.of(18, 0))
+                .add(LocalTime.of(9, 0), LocalTime.of(10, 0)).build();
+
+        assertEquals(TimeIntervalSet.of(LocalTime.of(8, 0),
+                LocalTime.of(18, 0)), set);
+    }
+
+    @Test
+    public void builder_wrapsOverMidnight_splitIntoTwoIntervals() {
+        TimeIntervalSet set = TimeIntervalSet.of(LocalTime.of(22, 0),
+                LocalTime.of(2, 0));
+
+        assertEquals(2, set.getIntervalCount());
+        assertTrue(set.contains(LocalTime.of(23, 59)));
+        assertTrue(set.contains(LocalTime.MIDNIGHT));
+        assertTrue(set.contains(LocalTime.of(1, 59, 59)));
+        assertFalse(set.contains(LocalTime.of(2, 0)));
+        assertFalse(set.contains(LocalTime.NOON));
+    }
+
+    @Test
+    public void builder_midnightEnd_endOfDay() {
+        TimeIntervalSet set = TimeIntervalSet.of(LocalTime.of(20, 0),
+                LocalTime.MIDNIGHT);
+
+        assertEquals(1, set.getIntervalCount());
+        assertTrue(set.contains(LocalTime.MAX));
+        assertFalse(set.contains(LocalTime.MIDNIGHT));
+    }
+
+    @Test
+    public void builder_emptyIntervals_ignored() {
+        assertSame(TimeIntervalSet.EMPTY, TimeIntervalSet.builder()
+                .add(LocalTime.NOON, LocalTime.NOON).build());
+        assertTrue(TimeIntervalSet.EMPTY.isEmpty());
+        assertFalse(TimeIntervalSet.EMPTY.contains(LocalTime.NOON));
+    }
+
+    @Test
+    public void builder_manyIntervals_growsAndMerges() {
+        TimeIntervalSet.Builder builder = TimeIntervalSet.builder();
+        // every other minute, added in reverse, then the gaps
+        for (int minute = 24 * 60 - 2; minute >= 0; minute -= 2) {
+            builder.add(LocalTime.ofSecondOfDay(minute * 60L),
+                    LocalTime.ofSecondOfDay(minute * 60L + 60));
+        }
+        assertEquals(720, builder.build().getIntervalCount());
+
+        builder.addAll(TimeIntervalSet.of(LocalTime.of(0, 1),
+                LocalTime.MIDNIGHT));
+        assertEquals(TimeIntervalSet.WHOLE_DAY, builder.build());
+    }
+
+    @Test
+    public void contains_intervalBounds_startInclusiveEndExclusive() {
+        TimeIntervalSet set = TimeIntervalSet.builder()
+                .add(LocalTime.of(9, 0), LocalTime.of(10, 0))
+                .add(LocalTime.of(11, 0), LocalTime.of(12, 0))
+                .add(LocalTime.of(13, 0), LocalTime.of(14, 0)).build();
+
+        assertFalse(set.contains(LocalTime.of(8, 59, 59, 999_000_000)));
+        assertTrue(set.contains(LocalTime.of(9, 0)));
+        assertTrue(set.contains(LocalTime.of(9, 59, 59, 999_000_000)));
+        assertFalse(set.contains(LocalTime.of(10, 0)));
+        assertFalse(set.contains(LocalTime.of(10, 30)));
+        assertTrue(set.contains(LocalTime.of(11, 0)));
+        assertFalse(set.contains(LocalTime.of(12, 0)));
+        assertTrue(set.contains(LocalTime.of(13, 30)));
+        assertFalse(set.contains(LocalTime.of(14, 0)));
+    }
+
+    @Test
+    public void contains_matchesLinearScan() {
+        TimeIntervalSet.Builder builder = TimeIntervalSet.builder();
+        boolean[] expected = new boolean[24 * 60];
+        for (int start = 7; start < 24 * 60; start += 37) {
+            int end = Math.min(start + 11, 24 * 60 - 1);
+            builder.add(LocalTime.ofSecondOfDay(start * 60L),
+                    LocalTime.ofSecondOfDay(end * 60L));
+            for (int minute = start; minute < end; minute++) {
+                expected[minute] = true;
+            }
+        }
+        TimeIntervalSet set = builder.build();
+
+        for (int minute = 0; minute < expected.length; minute++) {
+            assertEquals("minute " + minute, expected[minute],
+                    set.contains(LocalTime.ofSecondOfDay(minute * 60L)));
+        }
+    }
+
+    @Test
+    public void toString_endOfDay_shownAs2400() {
+        assertEquals("TimeIntervalSet[09:00-12:00, 22:00-24:00]",
+                TimeIntervalSet.builder()
+                        .add(LocalTime.of(9, 0), LocalTime.NOON)
+                        .add(LocalTime.of(22, 0), LocalTime.MIDNIGHT).build()
+                        .toString());
+    }
+}